@@ -1,6 +1,9 @@
 package com.expensetracker.config;
 
 import com.expensetracker.service.JwtService;
+import com.expensetracker.service.TenantLoadTracker;
+import com.expensetracker.service.TokenRevocationService;
+import com.expensetracker.service.VerifiedTokenCache;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,6 +20,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
 import java.util.Collections;
+import java.util.Optional;
 
 /**
  * JWT Authentication Filter to process JWT tokens from requests
@@ -26,7 +30,9 @@ import java.util.Collections;
 @Slf4j
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
-    private final JwtService jwtService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final TokenRevocationService tokenRevocationService;
+    private final TenantLoadTracker tenantLoadTracker;
     
     @Override
     protected void doFilterInternal(
@@ -36,48 +42,39 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authorizationHeader = request.getHeader("Authorization");
         
-        String userId = null;
-        String jwt = null;
-        
-        // Extract JWT from Authorization header
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            try {
-                userId = jwtService.extractUserId(jwt);
-            } catch (Exception e) {
-                log.warn("JWT token extraction failed: {}", e.getMessage());
-            }
-        }
-        
-        // Validate token and set authentication
-        if (userId != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            try {
-                if (jwtService.validateToken(jwt)) {
-                    String role = jwtService.extractRole(jwt);
-                    String email = jwtService.extractEmail(jwt);
-                    
-                    // Create authentication token
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userId,
-                            null,
-                            Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
-                    );
-                    
-                    // Set additional details
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-                    
-                    // Set authentication in security context
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                    
-                    // Add user info to request attributes for easy access
-                    request.setAttribute("userId", userId);
-                    request.setAttribute("userEmail", email);
-                    request.setAttribute("userRole", role);
-                    
-                    log.debug("JWT authentication successful for user: {}", userId);
-                }
-            } catch (Exception e) {
-                log.warn("JWT validation failed for user {}: {}", userId, e.getMessage());
+        // Extract JWT from Authorization header, verify it (or reuse a cached verification) and set authentication
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authorizationHeader.substring(7);
+            
+            Optional<JwtService.VerifiedToken> verified = verifiedTokenCache.verify(jwt);
+            if (verified.isPresent() && tokenRevocationService.isRevoked(verified.get().tokenId())) {
+                log.debug("Rejected revoked token of user: {}", verified.get().userId());
+            } else if (verified.isPresent()) {
+                String userId = verified.get().userId();
+                String role = verified.get().role();
+                String email = verified.get().email();
+                
+                // Create authentication token
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userId,
+                        null,
+                        Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + role))
+                );
+                
+                // Set additional details
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+                
+                // Set authentication in security context
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+                
+                // Add user info to request attributes for easy access
+                request.setAttribute("userId", userId);
+                request.setAttribute("userEmail", email);
+                request.setAttribute("userRole", role);
+                
+                tenantLoadTracker.record(userId);
+                log.debug("JWT authentication successful for user: {}", userId);
             }
         }
         
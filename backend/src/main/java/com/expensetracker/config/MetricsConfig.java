@@ -0,0 +1,88 @@
+package com.expensetracker.config;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+/**
+ * Timing of service methods.
+ * Public methods of classes annotated with {@link Timed} are recorded under the annotation's metric name,
+ * tagged by class, method and exception, and failures are counted per exception type in {@code service.errors}.
+ * Repository queries are timed by Spring Boot itself ({@code spring.data.repository.invocations}).
+ */
+@Configuration
+public class MetricsConfig {
+    
+    public static final String ERROR_COUNTER = "service.errors";
+    
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor timedServiceAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return new DefaultPointcutAdvisor(new AnnotationMatchingPointcut(Timed.class, true),
+                new TimedServiceInterceptor(meterRegistry));
+    }
+    
+    /**
+     * Records one timer sample per call; the registry is resolved lazily since advisors are created early
+     */
+    static class TimedServiceInterceptor implements MethodInterceptor {
+        
+        private final ObjectProvider<MeterRegistry> meterRegistry;
+        
+        TimedServiceInterceptor(ObjectProvider<MeterRegistry> meterRegistry) {
+            this.meterRegistry = meterRegistry;
+        }
+        
+        @Override
+        public Object invoke(MethodInvocation invocation) throws Throwable {
+            MeterRegistry registry = meterRegistry.getIfAvailable();
+            Class<?> targetClass = invocation.getThis() != null
+                    ? invocation.getThis().getClass()
+                    : invocation.getMethod().getDeclaringClass();
+            Timed timed = AnnotatedElementUtils.findMergedAnnotation(targetClass, Timed.class);
+            if (registry == null || timed == null) {
+                return invocation.proceed();
+            }
+            
+            String className = invocation.getMethod().getDeclaringClass().getSimpleName();
+            String methodName = invocation.getMethod().getName();
+            String exception = "none";
+            Timer.Sample sample = Timer.start(registry);
+            try {
+                return invocation.proceed();
+            } catch (Throwable e) {
+                exception = e.getClass().getSimpleName();
+                Counter.builder(ERROR_COUNTER)
+                        .description("Exceptions thrown by service methods")
+                        .tag("class", className)
+                        .tag("method", methodName)
+                        .tag("exception", exception)
+                        .register(registry)
+                        .increment();
+                throw e;
+            } finally {
+                sample.stop(Timer.builder(timed.value())
+                        .description(timed.description().isEmpty() ? "Execution time of service methods" : timed.description())
+                        .tags(timed.extraTags())
+                        .tag("class", className)
+                        .tag("method", methodName)
+                        .tag("exception", exception)
+                        .publishPercentileHistogram(timed.histogram())
+                        .publishPercentiles(timed.percentiles().length > 0 ? timed.percentiles() : null)
+                        .register(registry));
+            }
+        }
+    }
+}
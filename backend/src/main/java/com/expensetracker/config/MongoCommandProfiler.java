@@ -0,0 +1,219 @@
+package com.expensetracker.config;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandStartedEvent;
+import com.mongodb.event.CommandSucceededEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.BsonArray;
+import org.bson.BsonBinaryWriter;
+import org.bson.BsonDocument;
+import org.bson.BsonString;
+import org.bson.BsonValue;
+import org.bson.RawBsonDocument;
+import org.bson.codecs.BsonDocumentCodec;
+import org.bson.codecs.EncoderContext;
+import org.bson.io.BasicOutputBuffer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command listener on the Mongo client: times every command per collection and operation,
+ * records returned document counts and reply sizes, and logs commands slower than
+ * {@code mongo.profiler.slow-command-ms} together with their filter shape (values redacted).
+ * Commands are also added to the request's {@link MongoRoundTrips} tally.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class MongoCommandProfiler implements CommandListener {
+    
+    private static final Set<String> IGNORED_COMMANDS = Set.of(
+            "hello", "ismaster", "isMaster", "ping", "buildInfo", "buildinfo",
+            "saslStart", "saslContinue", "getnonce", "authenticate", "endSessions");
+    
+    private static final String REDACTED = "?";
+    private static final int MAX_SHAPE_DEPTH = 8;
+    
+    private final MeterRegistry meterRegistry;
+    
+    // Started commands waiting for their outcome, keyed by driver request id
+    private final Map<Integer, StartedCommand> inFlight = new ConcurrentHashMap<>();
+    
+    @Value("${mongo.profiler.slow-command-ms:100}")
+    private long slowCommandMs;
+    
+    record StartedCommand(String commandName, String collection, String shape) {
+    }
+    
+    @Override
+    public void commandStarted(CommandStartedEvent event) {
+        if (IGNORED_COMMANDS.contains(event.getCommandName())) {
+            return;
+        }
+        // The command buffer is released once this returns, so everything needed later is extracted now
+        BsonDocument command = event.getCommand();
+        StartedCommand started = new StartedCommand(
+                event.getCommandName(), collectionOf(event.getCommandName(), command), shapeOf(command));
+        inFlight.put(event.getRequestId(), started);
+        
+        MongoRoundTrips.current().ifPresent(tally ->
+                tally.recordCommand(started.collection(), started.commandName(), started.shape(), sizeOf(command)));
+    }
+    
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        StartedCommand started = inFlight.remove(event.getRequestId());
+        if (started == null) {
+            return;
+        }
+        long elapsedNanos = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        BsonDocument response = event.getResponse();
+        int documents = returnedDocuments(response);
+        int replyBytes = sizeOf(response);
+        MongoRoundTrips.current().ifPresent(tally -> tally.recordReply(replyBytes));
+        
+        record(started, "success", elapsedNanos);
+        DistributionSummary.builder("mongodb.command.documents")
+                .description("Documents returned or affected per command")
+                .tag("collection", started.collection())
+                .tag("command", started.commandName())
+                .register(meterRegistry)
+                .record(documents);
+        DistributionSummary.builder("mongodb.command.reply.size")
+                .description("Size of command replies")
+                .baseUnit("bytes")
+                .tag("collection", started.collection())
+                .tag("command", started.commandName())
+                .register(meterRegistry)
+                .record(replyBytes);
+        
+        logIfSlow(started, elapsedNanos, "documents=" + documents + " replyBytes=" + replyBytes);
+    }
+    
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        StartedCommand started = inFlight.remove(event.getRequestId());
+        if (started == null) {
+            return;
+        }
+        long elapsedNanos = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        record(started, "failure", elapsedNanos);
+        logIfSlow(started, elapsedNanos, "failed: " + event.getThrowable().getMessage());
+    }
+    
+    private void record(StartedCommand started, String status, long elapsedNanos) {
+        Timer.builder("mongodb.command")
+                .description("Latency of MongoDB commands")
+                .tag("collection", started.collection())
+                .tag("command", started.commandName())
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(elapsedNanos, TimeUnit.NANOSECONDS);
+    }
+    
+    private void logIfSlow(StartedCommand started, long elapsedNanos, String outcome) {
+        long elapsedMs = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (elapsedMs < slowCommandMs) {
+            return;
+        }
+        Counter.builder("mongodb.command.slow")
+                .description("Commands slower than the slow command threshold")
+                .tag("collection", started.collection())
+                .tag("command", started.commandName())
+                .register(meterRegistry)
+                .increment();
+        log.warn("Slow Mongo command {} on {} took {} ms ({}), shape: {}",
+                started.commandName(), started.collection(), elapsedMs, outcome, started.shape());
+    }
+    
+    /**
+     * Collection a command targets: the value of the command name field, or "collection" for getMore
+     */
+    static String collectionOf(String commandName, BsonDocument command) {
+        BsonValue target = command.get("getMore".equals(commandName) ? "collection" : commandName);
+        return target != null && target.isString() ? target.asString().getValue() : "none";
+    }
+    
+    /**
+     * Query shape of a command: its filter, pipeline or write predicates with every value replaced by "?"
+     */
+    static String shapeOf(BsonDocument command) {
+        for (String key : new String[]{"filter", "query", "pipeline"}) {
+            BsonValue value = command.get(key);
+            if (value != null) {
+                return redact(value, 0).toString();
+            }
+        }
+        for (String key : new String[]{"updates", "deletes"}) {
+            BsonValue statements = command.get(key);
+            if (statements != null && statements.isArray() && !statements.asArray().isEmpty()
+                    && statements.asArray().get(0).isDocument()) {
+                BsonValue predicate = statements.asArray().get(0).asDocument().get("q");
+                return predicate != null ? redact(predicate, 0).toString() : "{}";
+            }
+        }
+        return "{}";
+    }
+    
+    private static BsonValue redact(BsonValue value, int depth) {
+        if (depth > MAX_SHAPE_DEPTH) {
+            return new BsonString(REDACTED);
+        }
+        if (value.isDocument()) {
+            BsonDocument shape = new BsonDocument();
+            value.asDocument().forEach((key, nested) -> shape.append(key, redact(nested, depth + 1)));
+            return shape;
+        }
+        if (value.isArray()) {
+            // Keep the structure of operator arrays ($and, $or, pipelines), collapse value lists ($in)
+            BsonArray array = value.asArray();
+            if (!array.isEmpty() && array.get(0).isDocument()) {
+                BsonArray shape = new BsonArray();
+                array.forEach(element -> shape.add(redact(element, depth + 1)));
+                return shape;
+            }
+            return new BsonString(REDACTED);
+        }
+        return new BsonString(REDACTED);
+    }
+    
+    /**
+     * Documents in the first/next cursor batch, or the affected count ("n") of writes and counts
+     */
+    static int returnedDocuments(BsonDocument response) {
+        BsonValue cursor = response.get("cursor");
+        if (cursor != null && cursor.isDocument()) {
+            for (String key : new String[]{"firstBatch", "nextBatch"}) {
+                BsonValue batch = cursor.asDocument().get(key);
+                if (batch != null && batch.isArray()) {
+                    return batch.asArray().size();
+                }
+            }
+        }
+        BsonValue n = response.get("n");
+        return n != null && n.isNumber() ? n.asNumber().intValue() : 0;
+    }
+    
+    private static int sizeOf(BsonDocument response) {
+        if (response instanceof RawBsonDocument raw) {
+            return raw.getByteBuffer().remaining();
+        }
+        BasicOutputBuffer buffer = new BasicOutputBuffer();
+        try (BsonBinaryWriter writer = new BsonBinaryWriter(buffer)) {
+            new BsonDocumentCodec().encode(writer, response, EncoderContext.builder().build());
+        }
+        return buffer.getPosition();
+    }
+}
@@ -0,0 +1,24 @@
+package com.expensetracker.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * MongoDB client configuration
+ */
+@Configuration
+public class MongoConfig {
+    
+    @Bean
+    public MongoClientSettingsBuilderCustomizer commandProfilerCustomizer(
+            MongoCommandProfiler commandProfiler,
+            @Value("${mongo.profiler.enabled:true}") boolean enabled) {
+        return settings -> {
+            if (enabled) {
+                settings.addCommandListener(commandProfiler);
+            }
+        };
+    }
+}
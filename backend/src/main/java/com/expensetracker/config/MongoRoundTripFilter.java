@@ -0,0 +1,200 @@
+package com.expensetracker.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the Mongo round trips and bytes of every request (security filters included),
+ * publishes them per endpoint and logs requests that exceed their round-trip budget
+ * or repeat the same command shape often enough to suggest an N+1 loop.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+@Slf4j
+public class MongoRoundTripFilter extends OncePerRequestFilter {
+    
+    public static final String ROUND_TRIPS_HEADER = "X-Mongo-Round-Trips";
+    
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${mongo.round-trips.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${mongo.round-trips.debug-header:false}")
+    private boolean debugHeader;
+    
+    @Value("${mongo.round-trips.default-budget:20}")
+    private int defaultBudget;
+    
+    // Comma separated "METHOD /pattern=max" entries, e.g. "GET /expenses/summary=16,POST /expenses=4"
+    @Value("${mongo.round-trips.budgets:}")
+    private String budgetList;
+    
+    @Value("${mongo.round-trips.n-plus-one-threshold:5}")
+    private int nPlusOneThreshold;
+    
+    private final Map<String, Integer> budgets = new HashMap<>();
+    
+    @PostConstruct
+    void parseBudgets() {
+        for (String entry : budgetList.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                continue;
+            }
+            try {
+                budgets.put(entry.substring(0, separator).trim(), Integer.parseInt(entry.substring(separator + 1).trim()));
+            } catch (NumberFormatException e) {
+                log.warn("Ignoring invalid round-trip budget: {}", entry);
+            }
+        }
+    }
+    
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        
+        MongoRoundTrips.Tally tally = MongoRoundTrips.begin();
+        // The header has to go out before the response commits; it is stamped when the body is
+        // first requested rather than by buffering the body, so streaming responses pass through
+        HeaderStampingResponse stampingResponse = debugHeader ? new HeaderStampingResponse(request, response, tally) : null;
+        try {
+            filterChain.doFilter(request, stampingResponse != null ? stampingResponse : response);
+        } finally {
+            tally.close();
+            report(request, tally);
+            if (stampingResponse != null) {
+                // Bodiless responses never asked for a stream
+                stampingResponse.stamp();
+            }
+        }
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled || request.getRequestURI().startsWith("/api/actuator/");
+    }
+    
+    private void report(HttpServletRequest request, MongoRoundTrips.Tally tally) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+        String endpoint = request.getMethod() + " " + uri;
+        
+        DistributionSummary.builder("http.server.requests.mongo.round.trips")
+                .description("Mongo round trips per request")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(tally.getCommands());
+        DistributionSummary.builder("http.server.requests.mongo.bytes")
+                .description("Mongo bytes sent and received per request")
+                .baseUnit("bytes")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(tally.getBytesSent() + tally.getBytesReceived());
+        
+        int budget = budgets.getOrDefault(endpoint, defaultBudget);
+        if (tally.getCommands() > budget) {
+            Counter.builder("http.server.requests.mongo.budget.exceeded")
+                    .description("Requests over their Mongo round-trip budget")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .increment();
+            log.warn("{} exceeded its round-trip budget of {}: {}", endpoint, budget, tally);
+        }
+        
+        tally.mostRepeatedShape()
+                .filter(shape -> shape.getValue() >= nPlusOneThreshold)
+                .ifPresent(shape -> log.warn("Possible N+1 in {}: {} issued {} times", endpoint, shape.getKey(), shape.getValue()));
+    }
+    
+    /**
+     * Adds the round-trip header just before the response can commit: when the body stream or
+     * writer is obtained, on flush, error or redirect. Async responses (e.g. StreamingResponseBody)
+     * write from another thread after this filter has returned, so they are left without it.
+     */
+    static class HeaderStampingResponse extends HttpServletResponseWrapper {
+        
+        private final HttpServletRequest request;
+        private final MongoRoundTrips.Tally tally;
+        private boolean stamped;
+        
+        HeaderStampingResponse(HttpServletRequest request, HttpServletResponse response, MongoRoundTrips.Tally tally) {
+            super(response);
+            this.request = request;
+            this.tally = tally;
+        }
+        
+        void stamp() {
+            if (stamped || isCommitted() || request.isAsyncStarted()) {
+                return;
+            }
+            stamped = true;
+            setHeader(ROUND_TRIPS_HEADER, tally.getCommands()
+                    + "; sent=" + tally.getBytesSent() + "; received=" + tally.getBytesReceived());
+        }
+        
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            stamp();
+            return super.getOutputStream();
+        }
+        
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            stamp();
+            return super.getWriter();
+        }
+        
+        @Override
+        public void flushBuffer() throws IOException {
+            stamp();
+            super.flushBuffer();
+        }
+        
+        @Override
+        public void sendError(int sc) throws IOException {
+            stamp();
+            super.sendError(sc);
+        }
+        
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            stamp();
+            super.sendError(sc, msg);
+        }
+        
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            stamp();
+            super.sendRedirect(location);
+        }
+    }
+}
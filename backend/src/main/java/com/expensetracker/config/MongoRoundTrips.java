@@ -0,0 +1,101 @@
+package com.expensetracker.config;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Thread-bound accounting of Mongo round trips.
+ * The sync driver publishes command events on the calling thread, so the {@link MongoCommandProfiler}
+ * adds every command to the tally opened by the current request (or test). Tallies nest: closing an
+ * inner tally adds its figures to the enclosing one.
+ */
+public final class MongoRoundTrips {
+    
+    private static final ThreadLocal<Tally> CURRENT = new ThreadLocal<>();
+    
+    private MongoRoundTrips() {
+    }
+    
+    /**
+     * Start counting round trips on this thread until the returned tally is closed
+     */
+    public static Tally begin() {
+        Tally tally = new Tally(CURRENT.get());
+        CURRENT.set(tally);
+        return tally;
+    }
+    
+    /**
+     * Tally open on this thread, if any
+     */
+    public static Optional<Tally> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+    
+    public static final class Tally implements AutoCloseable {
+        
+        private final Tally parent;
+        private int commands;
+        private long bytesSent;
+        private long bytesReceived;
+        private final Map<String, Integer> shapes = new HashMap<>();
+        private boolean closed;
+        
+        private Tally(Tally parent) {
+            this.parent = parent;
+        }
+        
+        void recordCommand(String collection, String commandName, String shape, long commandBytes) {
+            commands++;
+            bytesSent += commandBytes;
+            shapes.merge(commandName + " " + collection + " " + shape, 1, Integer::sum);
+        }
+        
+        void recordReply(long replyBytes) {
+            bytesReceived += replyBytes;
+        }
+        
+        public int getCommands() {
+            return commands;
+        }
+        
+        public long getBytesSent() {
+            return bytesSent;
+        }
+        
+        public long getBytesReceived() {
+            return bytesReceived;
+        }
+        
+        /**
+         * Command shape issued most often, with its count; a high count points at an N+1 loop
+         */
+        public Optional<Map.Entry<String, Integer>> mostRepeatedShape() {
+            return shapes.entrySet().stream().max(Comparator.comparingInt(Map.Entry::getValue));
+        }
+        
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            if (parent != null) {
+                parent.commands += commands;
+                parent.bytesSent += bytesSent;
+                parent.bytesReceived += bytesReceived;
+                shapes.forEach((shape, count) -> parent.shapes.merge(shape, count, Integer::sum));
+                CURRENT.set(parent);
+            } else {
+                CURRENT.remove();
+            }
+        }
+        
+        @Override
+        public String toString() {
+            return commands + " round trips, " + bytesSent + " bytes sent, " + bytesReceived + " bytes received";
+        }
+    }
+}
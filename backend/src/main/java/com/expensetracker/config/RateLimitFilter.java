@@ -0,0 +1,121 @@
+package com.expensetracker.config;
+
+import com.expensetracker.exception.GlobalExceptionHandler;
+import com.expensetracker.service.RateLimiter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Applies per-user and per-IP rate limits; runs after JWT authentication so the user is known
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+    
+    private final RateLimiter rateLimiter;
+    private final ObjectMapper objectMapper;
+    
+    @Value("${rate-limit.enabled:true}")
+    private boolean enabled;
+    
+    // Credential endpoints, limited per client IP since there is no user yet
+    private static final List<String> AUTH_PATHS = List.of("/auth/login", "/auth/register", "/auth/change-password");
+    
+    // Aggregations and exports
+    private static final List<String> HEAVY_PATHS = List.of("/expenses/summary", "/categories/stats", "/users/active/export");
+    
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain) throws ServletException, IOException {
+        
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String userId = currentUserId();
+        
+        RateLimiter.EndpointClass endpointClass;
+        String clientKey;
+        if (AUTH_PATHS.contains(path)) {
+            endpointClass = RateLimiter.EndpointClass.AUTH;
+            clientKey = request.getRemoteAddr();
+        } else if (userId != null) {
+            endpointClass = HEAVY_PATHS.contains(path) ? RateLimiter.EndpointClass.HEAVY : RateLimiter.EndpointClass.STANDARD;
+            clientKey = userId;
+        } else {
+            // Unauthenticated requests are rejected by Spring Security anyway
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        long retryAfter = rateLimiter.tryAcquire(endpointClass, clientKey);
+        if (retryAfter > 0) {
+            log.debug("Rate limited {} request from {}, retry after {}s", endpointClass, clientKey, retryAfter);
+            reject(response, retryAfter, "Too many requests, please retry after " + retryAfter + " seconds");
+            return;
+        }
+        
+        if (userId == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        
+        if (!rateLimiter.enter(userId)) {
+            reject(response, 1, "Too many concurrent requests");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            rateLimiter.exit(userId);
+        }
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        String path = request.getRequestURI();
+        return !enabled ||
+               path.startsWith("/api/actuator/") ||
+               "OPTIONS".equals(request.getMethod());
+    }
+    
+    private String currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated() || !(authentication.getPrincipal() instanceof String)) {
+            return null;
+        }
+        String principal = (String) authentication.getPrincipal();
+        return "anonymousUser".equals(principal) ? null : principal;
+    }
+    
+    private void reject(HttpServletResponse response, long retryAfterSeconds, String message) throws IOException {
+        GlobalExceptionHandler.ErrorResponse errorResponse = GlobalExceptionHandler.ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(HttpStatus.TOO_MANY_REQUESTS.value())
+                .error("Too Many Requests")
+                .message(message)
+                .build();
+        
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader("Retry-After", String.valueOf(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), errorResponse);
+    }
+}
@@ -26,6 +26,7 @@ import java.util.Arrays;
 public class SecurityConfig {
     
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
+    private final RateLimitFilter rateLimitFilter;
     
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
@@ -37,6 +38,13 @@ public class SecurityConfig {
                 // Public endpoints
                 .requestMatchers("/auth/**").permitAll()
                 .requestMatchers("/actuator/**").permitAll()
+                .requestMatchers("/admin/repair-orphans").hasRole("ADMIN") // Bulk-destructive
+                .requestMatchers("/admin/analyze").hasRole("ADMIN") // Scans every collection
+                .requestMatchers("/admin/categories/compact").hasRole("ADMIN") // Bulk merge of categories
+                .requestMatchers("/admin/user-stats/reconcile").hasRole("ADMIN") // Full scan of expenses
+                .requestMatchers("/admin/analytics").hasRole("ADMIN") // Refresh recomputes over every expense
+                .requestMatchers("/admin/tenants/top").hasRole("ADMIN") // Lists user ids; storage half aggregates expenses
+                .requestMatchers("/admin/jobs/**").hasRole("ADMIN") // Any user's job; owners poll /jobs/{jobId}
                 .requestMatchers("/admin/**").permitAll() // Allow admin endpoints for database management
                 .requestMatchers(HttpMethod.OPTIONS, "/**").permitAll()
                 
@@ -44,11 +52,13 @@ public class SecurityConfig {
                 .requestMatchers("/users/**").authenticated()
                 .requestMatchers("/categories/**").authenticated()
                 .requestMatchers("/expenses/**").authenticated()
+                .requestMatchers("/jobs/**").authenticated()
                 
                 // Any other request requires authentication
                 .anyRequest().authenticated()
             )
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(rateLimitFilter, JwtAuthenticationFilter.class);
         
         return http.build();
     }
@@ -1,11 +1,22 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.dto.PlatformAnalyticsDto;
+import com.expensetracker.model.BackgroundJob;
 import com.expensetracker.model.User;
 import com.expensetracker.model.Category;
 import com.expensetracker.model.Expense;
+import com.expensetracker.service.BackgroundJobService;
+import com.expensetracker.service.CategoryMaintenanceService;
+import com.expensetracker.service.CollectionStatsService;
+import com.expensetracker.service.DatabaseAnalysisService;
+import com.expensetracker.service.OrphanRepairService;
+import com.expensetracker.service.PlatformAnalyticsService;
+import com.expensetracker.service.TenantFootprintService;
+import com.expensetracker.service.UserStatsService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.mongodb.core.MongoTemplate;
 import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -21,144 +32,76 @@ public class AdminController {
     @Autowired
     private MongoTemplate mongoTemplate;
 
+    @Autowired
+    private CategoryMaintenanceService categoryMaintenanceService;
+
+    @Autowired
+    private BackgroundJobService backgroundJobService;
+
+    @Autowired
+    private UserStatsService userStatsService;
+
+    @Autowired
+    private DatabaseAnalysisService databaseAnalysisService;
+
+    @Autowired
+    private OrphanRepairService orphanRepairService;
+
+    @Autowired
+    private CollectionStatsService collectionStatsService;
+
+    @Autowired
+    private TenantFootprintService tenantFootprintService;
+
+    @Autowired
+    private PlatformAnalyticsService platformAnalyticsService;
+
     /**
-     * Analyze database collections and schema
+     * Recompute every user's expense counters from the expenses collection (repairs drift)
      */
-    @GetMapping("/analyze")
-    public ResponseEntity<Map<String, Object>> analyzeDatabase() {
-        Map<String, Object> analysis = new HashMap<>();
-        
-        try {
-            // Collection counts
-            Map<String, Object> collections = new HashMap<>();
-            collections.put("users_count", mongoTemplate.count(new Query(), User.class));
-            collections.put("categories_count", mongoTemplate.count(new Query(), Category.class));
-            collections.put("expenses_count", mongoTemplate.count(new Query(), Expense.class));
-            analysis.put("collections", collections);
-            
-            // Sample documents
-            Map<String, Object> samples = new HashMap<>();
-            
-            // Sample user
-            User sampleUser = mongoTemplate.findOne(new Query().limit(1), User.class);
-            if (sampleUser != null) {
-                Map<String, Object> userSample = new HashMap<>();
-                userSample.put("fields", Arrays.asList("id", "userId", "name", "email", "role", "emailVerified", 
-                    "lastLogin", "createdAt", "updatedAt", "isActive"));
-                userSample.put("indexes", Arrays.asList("email (unique)", "userId (unique)"));
-                samples.put("user_schema", userSample);
-            }
-            
-            // Sample category
-            Category sampleCategory = mongoTemplate.findOne(new Query().limit(1), Category.class);
-            if (sampleCategory != null) {
-                Map<String, Object> categorySample = new HashMap<>();
-                categorySample.put("fields", Arrays.asList("id", "categoryId", "userId", "name", "description", 
-                    "color", "icon", "isDefault", "createdAt", "updatedAt"));
-                categorySample.put("indexes", Arrays.asList("categoryId", "userId", "user_id + name (compound, unique)"));
-                samples.put("category_schema", categorySample);
-            }
-            
-            // Sample expense
-            Expense sampleExpense = mongoTemplate.findOne(new Query().limit(1), Expense.class);
-            if (sampleExpense != null) {
-                Map<String, Object> expenseSample = new HashMap<>();
-                expenseSample.put("fields", Arrays.asList("id", "expenseId", "userId", "amount", "category", 
-                    "categoryId", "date", "time", "payee", "description", "paymentMethod", "tags", 
-                    "receiptUrl", "location", "isRecurring", "recurringFrequency", "notes", 
-                    "createdAt", "updatedAt", "source"));
-                expenseSample.put("indexes", Arrays.asList("expenseId (unique)", "userId", "categoryId", "date"));
-                samples.put("expense_schema", expenseSample);
-            }
-            
-            analysis.put("schemas", samples);
-            
-            // Data integrity analysis
-            Map<String, Object> integrity = new HashMap<>();
-            
-            // Check for orphaned data
-            List<User> users = mongoTemplate.findAll(User.class);
-            List<Category> categories = mongoTemplate.findAll(Category.class);
-            List<Expense> expenses = mongoTemplate.findAll(Expense.class);
-            
-            Set<String> userIds = new HashSet<>();
-            users.forEach(user -> userIds.add(user.getUserId()));
-            
-            Set<String> categoryIds = new HashSet<>();
-            categories.forEach(category -> categoryIds.add(category.getCategoryId()));
-            
-            // Check orphaned categories
-            long orphanedCategories = categories.stream()
-                .filter(category -> !userIds.contains(category.getUserId()))
-                .count();
-            integrity.put("orphaned_categories", orphanedCategories);
-            
-            // Check orphaned expenses
-            long orphanedExpensesByUser = expenses.stream()
-                .filter(expense -> !userIds.contains(expense.getUserId()))
-                .count();
-            integrity.put("orphaned_expenses_by_user", orphanedExpensesByUser);
-            
-            long orphanedExpensesByCategory = expenses.stream()
-                .filter(expense -> expense.getCategoryId() != null && !categoryIds.contains(expense.getCategoryId()))
-                .count();
-            integrity.put("orphaned_expenses_by_category", orphanedExpensesByCategory);
-            
-            analysis.put("data_integrity", integrity);
-            
-            // Schema issues
-            List<String> issues = new ArrayList<>();
-            List<String> recommendations = new ArrayList<>();
-            
-            // Check for unused fields in Expense model
-            boolean hasReceiptUrl = expenses.stream().anyMatch(e -> e.getReceiptUrl() != null);
-            boolean hasLocation = expenses.stream().anyMatch(e -> e.getLocation() != null);
-            boolean hasRecurring = expenses.stream().anyMatch(e -> e.getIsRecurring() != null && e.getIsRecurring());
-            boolean hasTags = expenses.stream().anyMatch(e -> e.getTags() != null && !e.getTags().isEmpty());
-            
-            if (!hasReceiptUrl) {
-                issues.add("receiptUrl field is unused in all expenses");
-                recommendations.add("Consider removing receiptUrl field or implement receipt upload feature");
-            }
-            
-            if (!hasLocation) {
-                issues.add("location field is unused in all expenses");
-                recommendations.add("Consider removing location field or implement location tracking");
-            }
-            
-            if (!hasRecurring) {
-                issues.add("recurring expense features are unused");
-                recommendations.add("Consider removing recurring fields or implement recurring expense feature");
-            }
-            
-            if (!hasTags) {
-                issues.add("tags field is unused in all expenses");
-                recommendations.add("Consider removing tags field or implement expense tagging");
-            }
-            
-            // Check User model fields
-            boolean hasEmailVerified = users.stream().anyMatch(u -> u.getEmailVerified() != null && u.getEmailVerified());
-            boolean hasLastLogin = users.stream().anyMatch(u -> u.getLastLogin() != null);
-            
-            if (!hasEmailVerified) {
-                issues.add("Email verification feature is not implemented");
-                recommendations.add("Consider implementing email verification or remove emailVerified field");
-            }
-            
-            if (!hasLastLogin) {
-                issues.add("Last login tracking is not being used");
-                recommendations.add("Consider implementing last login tracking or remove lastLogin field");
-            }
-            
-            analysis.put("schema_issues", issues);
-            analysis.put("recommendations", recommendations);
-            
-            return ResponseEntity.ok(analysis);
-            
-        } catch (Exception e) {
-            analysis.put("error", "Failed to analyze database: " + e.getMessage());
-            return ResponseEntity.status(500).body(analysis);
-        }
+    @PostMapping("/user-stats/reconcile")
+    public ResponseEntity<BackgroundJob> reconcileUserStats() {
+        BackgroundJob job = userStatsService.startReconciliation();
+        return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Merge categories that share a categoryId and enforce a unique index on category_id
+     */
+    @PostMapping("/categories/compact")
+    public ResponseEntity<BackgroundJob> compactCategories() {
+        BackgroundJob job = categoryMaintenanceService.startCompaction();
+        return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Get status and progress of a background job
+     */
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<BackgroundJob> getJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(backgroundJobService.getJobOrThrow(jobId));
+    }
+
+    /**
+     * Delete orphaned expenses and categories, or (policy=REASSIGN) move expenses of a missing category to "Others".
+     * Admin only; only counts orphans unless dryRun=false.
+     */
+    @PostMapping("/repair-orphans")
+    public ResponseEntity<BackgroundJob> repairOrphans(
+            @RequestParam(defaultValue = "REASSIGN") OrphanRepairService.RepairPolicy policy,
+            @RequestParam(defaultValue = "true") boolean dryRun) {
+        BackgroundJob job = orphanRepairService.startRepair(policy, dryRun);
+        return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
+    }
+    
+    /**
+     * Analyze database collections and schema in the background; poll /admin/jobs/{jobId} for the report.
+     * sampleSize > 0 checks field usage on a random sample instead of every document.
+     */
+    @PostMapping("/analyze")
+    public ResponseEntity<BackgroundJob> analyzeDatabase(@RequestParam(defaultValue = "0") int sampleSize) {
+        BackgroundJob job = databaseAnalysisService.startAnalysis(sampleSize);
+        return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
     }
     
     /**
@@ -208,6 +151,34 @@ public class AdminController {
         }
     }
     
+    /**
+     * Platform-wide spending analytics (cached; refresh=true recomputes now)
+     */
+    @GetMapping("/analytics")
+    public ResponseEntity<PlatformAnalyticsDto> getPlatformAnalytics(@RequestParam(defaultValue = "false") boolean refresh) {
+        return ResponseEntity.ok(platformAnalyticsService.getReport(refresh));
+    }
+    
+    /**
+     * Top users by expense storage (count, BSON bytes) and by recent request rate.
+     * Storage is estimated from a sample unless sampleSize is given (0 = exact full scan).
+     */
+    @GetMapping("/tenants/top")
+    public ResponseEntity<Map<String, Object>> getHotTenants(
+            @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(required = false) Integer sampleSize) {
+        try {
+            int cappedLimit = Math.max(1, Math.min(limit, 500));
+            return ResponseEntity.ok(sampleSize == null
+                    ? tenantFootprintService.getHotTenantReport(cappedLimit)
+                    : tenantFootprintService.getHotTenantReport(cappedLimit, sampleSize));
+        } catch (Exception e) {
+            Map<String, Object> error = new HashMap<>();
+            error.put("error", "Failed to build tenant report: " + e.getMessage());
+            return ResponseEntity.status(500).body(error);
+        }
+    }
+    
     /**
      * Get detailed collection statistics
      */
@@ -216,41 +187,10 @@ public class AdminController {
         Map<String, Object> stats = new HashMap<>();
         
         try {
-            // Users statistics
-            List<User> users = mongoTemplate.findAll(User.class);
-            Map<String, Object> userStats = new HashMap<>();
-            userStats.put("total_users", users.size());
-            userStats.put("active_users", users.stream().filter(u -> u.getIsActive() != null && u.getIsActive()).count());
-            userStats.put("verified_users", users.stream().filter(u -> u.getEmailVerified() != null && u.getEmailVerified()).count());
-            stats.put("users", userStats);
+            stats.putAll(collectionStatsService.getDomainStats());
             
-            // Categories statistics
-            List<Category> categories = mongoTemplate.findAll(Category.class);
-            Map<String, Object> categoryStats = new HashMap<>();
-            categoryStats.put("total_categories", categories.size());
-            categoryStats.put("default_categories", categories.stream().filter(c -> c.getIsDefault() != null && c.getIsDefault()).count());
-            categoryStats.put("custom_categories", categories.stream().filter(c -> c.getIsDefault() == null || !c.getIsDefault()).count());
-            stats.put("categories", categoryStats);
-            
-            // Expenses statistics
-            List<Expense> expenses = mongoTemplate.findAll(Expense.class);
-            Map<String, Object> expenseStats = new HashMap<>();
-            expenseStats.put("total_expenses", expenses.size());
-            if (!expenses.isEmpty()) {
-                double totalAmount = expenses.stream().mapToDouble(e -> e.getAmount().doubleValue()).sum();
-                double avgAmount = totalAmount / expenses.size();
-                expenseStats.put("total_amount", totalAmount);
-                expenseStats.put("average_amount", avgAmount);
-                
-                // Payment method breakdown
-                Map<String, Long> paymentMethods = new HashMap<>();
-                expenses.forEach(e -> {
-                    String method = e.getPaymentMethod() != null ? e.getPaymentMethod() : "Unknown";
-                    paymentMethods.put(method, paymentMethods.getOrDefault(method, 0L) + 1);
-                });
-                expenseStats.put("payment_methods", paymentMethods);
-            }
-            stats.put("expenses", expenseStats);
+            // Sizes from collStats and index usage counters from $indexStats
+            stats.put("storage", collectionStatsService.getStorageStats());
             
             return ResponseEntity.ok(stats);
             
@@ -258,5 +198,4 @@ public class AdminController {
             stats.put("error", "Failed to get statistics: " + e.getMessage());
             return ResponseEntity.status(500).body(stats);
         }
-    }
-}
\ No newline at end of file
+    }}
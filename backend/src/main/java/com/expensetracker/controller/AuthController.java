@@ -131,19 +131,27 @@ public class AuthController {
     }
     
     /**
-     * Logout (client-side token removal)
+     * Logout: revokes the presented token server-side
      * POST /api/auth/logout
      */
     @PostMapping("/logout")
-    public ResponseEntity<AuthResponseDto.MessageResponse> logout() {
-        // JWT tokens are stateless, so logout is handled client-side by removing the token
-        // This endpoint is provided for consistency and potential future server-side token blacklisting
+    public ResponseEntity<AuthResponseDto.MessageResponse> logout(
+            @RequestHeader(value = "Authorization", required = false) String authorizationHeader) {
         
-        AuthResponseDto.MessageResponse response = AuthResponseDto.MessageResponse.builder()
-                .message("Logout successful")
-                .build();
+        // Without a token there is nothing to revoke; the client still drops its copy
+        if (authorizationHeader == null || !authorizationHeader.startsWith("Bearer ")) {
+            return ResponseEntity.ok(AuthResponseDto.MessageResponse.builder()
+                    .message("Logout successful")
+                    .build());
+        }
         
-        return ResponseEntity.ok(response);
+        try {
+            String token = extractTokenFromHeader(authorizationHeader);
+            return ResponseEntity.ok(authService.logout(token));
+        } catch (Exception e) {
+            log.error("Logout failed", e);
+            throw new RuntimeException("Logout failed: " + e.getMessage());
+        }
     }
     
     /**
@@ -1,6 +1,8 @@
 package com.expensetracker.controller;
 
 import com.expensetracker.dto.CategoryRequestDto;
+import com.expensetracker.dto.CategoryStatsDto;
+import com.expensetracker.model.BackgroundJob;
 import com.expensetracker.model.Category;
 import com.expensetracker.service.CategoryService;
 import lombok.RequiredArgsConstructor;
@@ -74,6 +76,24 @@ public class CategoryController {
         }
     }
     
+    /**
+     * Get usage statistics (expense count, total, last used) per category for the current user
+     * GET /api/categories/stats
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<CategoryStatsDto>> getCategoryStats() {
+        String userId = getCurrentUserId();
+        log.info("Fetching category stats for user: {}", userId);
+        
+        try {
+            List<CategoryStatsDto> stats = categoryService.getCategoryStats(userId);
+            return ResponseEntity.ok(stats);
+        } catch (Exception e) {
+            log.error("Error fetching category stats for user: {}", userId, e);
+            throw new RuntimeException("Failed to fetch category stats: " + e.getMessage());
+        }
+    }
+    
     /**
      * Get category by ID
      * GET /api/categories/details/{categoryId}
@@ -112,22 +132,53 @@ public class CategoryController {
     }
     
     /**
-     * Delete category
-     * DELETE /api/categories/{categoryId}
+     * Delete category, moving its expenses to another category ("Others" by default)
+     * DELETE /api/categories/{categoryId}?targetCategoryId=...
+     * Returns the reassignment job; poll GET /api/jobs/{jobId} for progress
      */
     @DeleteMapping("/{categoryId}")
-    public ResponseEntity<Void> deleteCategory(@PathVariable String categoryId) {
+    public ResponseEntity<BackgroundJob> deleteCategory(
+            @PathVariable String categoryId,
+            @RequestParam(required = false) String targetCategoryId) {
         log.info("Deleting category: {}", categoryId);
         
         try {
-            categoryService.deleteCategory(categoryId);
-            return ResponseEntity.noContent().build();
+            BackgroundJob job = categoryService.deleteCategory(categoryId, targetCategoryId);
+            return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
         } catch (Exception e) {
             log.error("Error deleting category: {}", categoryId, e);
             throw new RuntimeException("Failed to delete category: " + e.getMessage());
         }
     }
     
+    /**
+     * Get rename and reassignment jobs for a category, newest first
+     * GET /api/categories/{categoryId}/jobs
+     */
+    @GetMapping("/{categoryId}/jobs")
+    public ResponseEntity<List<BackgroundJob>> getCategoryJobs(@PathVariable String categoryId) {
+        log.info("Fetching jobs for category: {}", categoryId);
+        
+        String userId = getCurrentUserId();
+        
+        try {
+            // Users only see jobs of their own categories; a deleted category is matched through its jobs' owner
+            categoryService.getCategoryById(categoryId)
+                    .filter(category -> !userId.equals(category.getUserId()))
+                    .ifPresent(category -> {
+                        throw new RuntimeException("Category not found: " + categoryId);
+                    });
+            
+            List<BackgroundJob> jobs = categoryService.getCategoryJobs(categoryId).stream()
+                    .filter(job -> userId.equals(job.getUserId()))
+                    .toList();
+            return ResponseEntity.ok(jobs);
+        } catch (Exception e) {
+            log.error("Error fetching jobs for category: {}", categoryId, e);
+            throw new RuntimeException("Failed to fetch category jobs: " + e.getMessage());
+        }
+    }
+    
     /**
      * Get default categories for a user
      * GET /api/categories/{userId}/defaults
@@ -0,0 +1,49 @@
+package com.expensetracker.controller;
+
+import com.expensetracker.model.BackgroundJob;
+import com.expensetracker.service.BackgroundJobService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+/**
+ * REST Controller for polling background job progress
+ */
+@RestController
+@RequestMapping("/jobs")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin(origins = {"http://localhost:3000", "http://127.0.0.1:3000"})
+public class JobController {
+    
+    private final BackgroundJobService backgroundJobService;
+    
+    /**
+     * Get the current authenticated user ID from the security context
+     */
+    private String getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication.getName(); // This will be the userId from the JWT
+    }
+    
+    /**
+     * Get job status and progress
+     * GET /api/jobs/{jobId}
+     */
+    @GetMapping("/{jobId}")
+    public ResponseEntity<BackgroundJob> getJob(@PathVariable String jobId) {
+        log.debug("Fetching job: {}", jobId);
+        
+        BackgroundJob job = backgroundJobService.getJobOrThrow(jobId);
+        
+        // Users only see their own jobs
+        if (job.getUserId() != null && !job.getUserId().equals(getCurrentUserId())) {
+            throw new RuntimeException("Job not found: " + jobId);
+        }
+        
+        return ResponseEntity.ok(job);
+    }
+}
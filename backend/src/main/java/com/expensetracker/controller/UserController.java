@@ -1,18 +1,25 @@
 package com.expensetracker.controller;
 
+import com.expensetracker.model.BackgroundJob;
 import com.expensetracker.model.User;
+import com.expensetracker.dto.UserSummaryDto;
+import com.expensetracker.service.UserDirectoryService;
 import com.expensetracker.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.Optional;
 
 /**
@@ -27,6 +34,8 @@ import java.util.Optional;
 public class UserController {
     
     private final UserService userService;
+    private final UserDirectoryService userDirectoryService;
+    private final ObjectMapper objectMapper;
     
     /**
      * Create a new user
@@ -101,16 +110,16 @@ public class UserController {
     }
     
     /**
-     * Delete user
+     * Delete user; data is purged by a background job whose progress is in the response
      * DELETE /api/users/{userId}
      */
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Void> deleteUser(@PathVariable String userId) {
+    public ResponseEntity<BackgroundJob> deleteUser(@PathVariable String userId) {
         log.info("Deleting user: {}", userId);
         
         try {
-            userService.deleteUser(userId);
-            return ResponseEntity.noContent().build();
+            BackgroundJob job = userService.deleteUser(userId);
+            return new ResponseEntity<>(job, HttpStatus.ACCEPTED);
         } catch (Exception e) {
             log.error("Error deleting user: {}", userId, e);
             throw new RuntimeException("Failed to delete user: " + e.getMessage());
@@ -152,22 +161,46 @@ public class UserController {
     }
     
     /**
-     * Get all active users
-     * GET /api/users/active
+     * Get active users, one page at a time
+     * GET /api/users/active?cursor={lastUserIdOfPreviousPage}&limit=50
      */
     @GetMapping("/active")
-    public ResponseEntity<List<User>> getAllActiveUsers() {
-        log.info("Fetching all active users");
+    public ResponseEntity<UserSummaryDto.Page> getActiveUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int limit) {
+        log.info("Fetching active users after cursor: {}", cursor);
         
         try {
-            List<User> users = userService.getAllActiveUsers();
-            return ResponseEntity.ok(users);
+            UserSummaryDto.Page page = userDirectoryService.getActiveUsers(cursor, limit);
+            return ResponseEntity.ok(page);
         } catch (Exception e) {
             log.error("Error fetching active users", e);
             throw new RuntimeException("Failed to fetch active users: " + e.getMessage());
         }
     }
     
+    /**
+     * Export all active users as newline-delimited JSON, streamed from a database cursor
+     * GET /api/users/active/export
+     */
+    @GetMapping(value = "/active/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportActiveUsers() {
+        log.info("Exporting active users");
+        
+        StreamingResponseBody body = outputStream -> userDirectoryService.streamActiveUsers(user -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(user));
+                outputStream.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+    
     /**
      * Check if user exists
      * GET /api/users/{userId}/exists
@@ -0,0 +1,28 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * DTO for per-category usage statistics
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CategoryStatsDto {
+    
+    private String categoryId;
+    private String categoryName;
+    private String color;
+    private String icon;
+    private Boolean isDefault;
+    private Long expenseCount;
+    private BigDecimal totalAmount;
+    private LocalDate lastUsed;
+}
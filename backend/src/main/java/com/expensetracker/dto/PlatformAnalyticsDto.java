@@ -0,0 +1,61 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for platform-wide spending analytics across all users
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PlatformAnalyticsDto {
+    
+    private LocalDateTime computedAt;
+    private Long computeTimeMs;
+    private Integer partitions;
+    private Long totalExpenses;
+    private BigDecimal totalAmount;
+    private List<MonthlyVolume> monthlyVolume;
+    private List<Share> categoryMix;
+    private List<Share> paymentMethodMix;
+    private List<Cohort> cohorts;
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class MonthlyVolume {
+        private String month; // yyyy-MM
+        private Long expenseCount;
+        private BigDecimal totalAmount;
+        private Long activeUsers;
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Share {
+        private String name;
+        private Long expenseCount;
+        private BigDecimal totalAmount;
+        private Double percentage; // Share of the total amount
+    }
+    
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Cohort {
+        private String firstExpenseMonth; // yyyy-MM of the user's first expense
+        private Long users;
+    }
+}
@@ -0,0 +1,40 @@
+package com.expensetracker.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for listing users without credentials or other sensitive fields
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserSummaryDto {
+    
+    private String userId;
+    private String name;
+    private String email;
+    private String role;
+    private Boolean isActive;
+    private LocalDateTime createdAt;
+    private LocalDateTime lastLogin;
+    
+    /**
+     * One page of a keyset-paginated user listing
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Page {
+        private List<UserSummaryDto> users;
+        private String nextCursor; // Pass as ?cursor= to get the next page, null on the last page
+        private Boolean hasMore;
+    }
+}
@@ -74,7 +74,10 @@ public class GlobalExceptionHandler {
         String error = "Internal Server Error";
         
         // Handle specific runtime exceptions
-        if (ex.getMessage().contains("not found") || ex.getMessage().contains("Not found")) {
+        if (ex.getMessage().contains("Too many requests")) {
+            status = HttpStatus.TOO_MANY_REQUESTS;
+            error = "Too Many Requests";
+        } else if (ex.getMessage().contains("not found") || ex.getMessage().contains("Not found")) {
             status = HttpStatus.NOT_FOUND;
             error = "Resource Not Found";
         } else if (ex.getMessage().contains("already exists") || ex.getMessage().contains("duplicate")) {
@@ -0,0 +1,136 @@
+package com.expensetracker.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Persisted state of a long-running maintenance job (bulk updates, purges, repairs).
+ * The checkpoint lets a job resume from its last completed batch after a restart.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "background_jobs")
+@CompoundIndex(def = "{'target_id': 1, 'created_at': -1}")
+public class BackgroundJob {
+
+    @Id
+    private String id;
+
+    @Field("job_id")
+    @Indexed(unique = true)
+    private String jobId;
+
+    @Field("type")
+    private JobType type;
+
+    @Field("status")
+    @Indexed
+    @Builder.Default
+    private JobStatus status = JobStatus.PENDING;
+
+    @Field("user_id")
+    private String userId; // Owner of the job, null for admin jobs
+
+    @Field("target_id")
+    private String targetId; // Entity the job operates on (categoryId, userId, ...)
+
+    @Field("params")
+    @Builder.Default
+    private Map<String, String> params = new HashMap<>();
+
+    @Field("checkpoint")
+    private String checkpoint; // Last processed _id, batches resume after it
+
+    @Field("phase")
+    private String phase; // Current step for multi-step jobs
+
+    @Field("processed")
+    @Builder.Default
+    private Long processed = 0L;
+
+    @Field("total")
+    @Builder.Default
+    private Long total = 0L;
+
+    @Field("message")
+    private String message;
+
+    @Field("result")
+    private Map<String, Object> result; // Report produced by analysis jobs
+
+    @Field("error")
+    private String error;
+
+    @Field("heartbeat_at")
+    private LocalDateTime heartbeatAt;
+
+    @Field("created_at")
+    @Builder.Default
+    private LocalDateTime createdAt = LocalDateTime.now();
+
+    @Field("updated_at")
+    @Builder.Default
+    private LocalDateTime updatedAt = LocalDateTime.now();
+
+    @Field("completed_at")
+    private LocalDateTime completedAt;
+
+    // Generate unique job ID
+    public static String generateJobId(JobType type) {
+        return type.name().toLowerCase() + "_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+    }
+
+    public String getParam(String key) {
+        return params != null ? params.get(key) : null;
+    }
+
+    // Percentage of work done, based on the total estimated when the job started
+    public Double getProgress() {
+        if (status == JobStatus.COMPLETED) {
+            return 100.0;
+        }
+        if (total == null || total == 0) {
+            return 0.0;
+        }
+        return Math.min(100.0, processed * 100.0 / total);
+    }
+
+    public boolean isFinished() {
+        return status == JobStatus.COMPLETED || status == JobStatus.FAILED || status == JobStatus.CANCELLED;
+    }
+
+    // Update timestamp before saving
+    public void updateTimestamp() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Job lifecycle states
+    public enum JobStatus {
+        PENDING, RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+
+    // Kinds of jobs known to the job runner
+    public enum JobType {
+        CATEGORY_RENAME,
+        CATEGORY_REASSIGN,
+        CATEGORY_COMPACTION,
+        USER_STATS_RECONCILE,
+        USER_PURGE,
+        DATABASE_ANALYSIS,
+        ORPHAN_REPAIR
+    }
+}
@@ -13,8 +13,8 @@ import org.springframework.data.mongodb.core.index.CompoundIndex;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import java.time.LocalDateTime;
-import java.util.Arrays;
 import java.util.List;
+import java.util.UUID;
 
 /**
  * Category entity representing expense categories
@@ -32,7 +32,7 @@ public class Category {
     
     @Field("category_id")
     @NotBlank(message = "Category ID cannot be blank")
-    @Indexed
+    @Indexed(unique = true)
     private String categoryId;
     
     @Field("user_id")
@@ -69,72 +69,64 @@ public class Category {
     @Builder.Default
     private LocalDateTime updatedAt = LocalDateTime.now();
     
+    // Shared, immutable template of the default categories every user starts with
+    public static final List<DefaultCategory> DEFAULT_TEMPLATE = List.of(
+        new DefaultCategory("Food", "Food and dining expenses", "#EF4444", "🍽️"),
+        new DefaultCategory("Shopping", "Shopping and retail purchases", "#F59E0B", "🛒"),
+        new DefaultCategory("Travel", "Travel and transportation expenses", "#10B981", "✈️"),
+        new DefaultCategory("Bills", "Utility bills and subscriptions", "#8B5CF6", "📄"),
+        new DefaultCategory("Entertainment", "Entertainment and leisure activities", "#EC4899", "🎬"),
+        new DefaultCategory("Others", "Miscellaneous expenses", "#6B7280", "📦")
+    );
+    
     // Default categories that should be created for new users
     public static List<Category> getDefaultCategories(String userId) {
-        return Arrays.asList(
-            Category.builder()
-                .categoryId(generateCategoryId(userId, "Food"))
-                .userId(userId)
-                .name("Food")
-                .description("Food and dining expenses")
-                .color("#EF4444")
-                .icon("🍽️")
-                .isDefault(true)
-                .build(),
-            Category.builder()
-                .categoryId(generateCategoryId(userId, "Shopping"))
-                .userId(userId)
-                .name("Shopping")
-                .description("Shopping and retail purchases")
-                .color("#F59E0B")
-                .icon("🛒")
-                .isDefault(true)
-                .build(),
-            Category.builder()
-                .categoryId(generateCategoryId(userId, "Travel"))
-                .userId(userId)
-                .name("Travel")
-                .description("Travel and transportation expenses")
-                .color("#10B981")
-                .icon("✈️")
-                .isDefault(true)
-                .build(),
-            Category.builder()
-                .categoryId(generateCategoryId(userId, "Bills"))
-                .userId(userId)
-                .name("Bills")
-                .description("Utility bills and subscriptions")
-                .color("#8B5CF6")
-                .icon("📄")
-                .isDefault(true)
-                .build(),
-            Category.builder()
-                .categoryId(generateCategoryId(userId, "Entertainment"))
-                .userId(userId)
-                .name("Entertainment")
-                .description("Entertainment and leisure activities")
-                .color("#EC4899")
-                .icon("🎬")
-                .isDefault(true)
-                .build(),
-            Category.builder()
-                .categoryId(generateCategoryId(userId, "Others"))
-                .userId(userId)
-                .name("Others")
-                .description("Miscellaneous expenses")
-                .color("#6B7280")
-                .icon("📦")
-                .isDefault(true)
-                .build()
-        );
+        return DEFAULT_TEMPLATE.stream()
+            .map(template -> template.toCategory(userId))
+            .toList();
     }
     
     public static String generateCategoryId(String userId, String categoryName) {
         return userId + "_" + categoryName.toLowerCase().replaceAll("\\s+", "_");
     }
     
+    // Same id with a random suffix; never parses as a default category's id
+    public static String withUniqueSuffix(String categoryId) {
+        return categoryId + "_" + UUID.randomUUID().toString().replace("-", "").substring(0, 8);
+    }
+    
     // Update timestamp before saving
     public void updateTimestamp() {
         this.updatedAt = LocalDateTime.now();
     }
+    
+    // Template entry for a default category, instantiated per user on demand
+    public record DefaultCategory(String name, String description, String color, String icon) {
+        
+        public Category toCategory(String userId) {
+            return Category.builder()
+                .categoryId(generateCategoryId(userId, name))
+                .userId(userId)
+                .name(name)
+                .description(description)
+                .color(color)
+                .icon(icon)
+                .isDefault(true)
+                .build();
+        }
+        
+        public String categoryIdFor(String userId) {
+            return generateCategoryId(userId, name);
+        }
+        
+        // Returns the userId this categoryId would belong to if it was generated from this template entry.
+        // Only a candidate: userIds may contain '_', so callers must check that the user exists.
+        public String userIdFromCategoryId(String categoryId) {
+            String suffix = generateCategoryId("", name);
+            if (categoryId == null || !categoryId.endsWith(suffix) || categoryId.length() == suffix.length()) {
+                return null;
+            }
+            return categoryId.substring(0, categoryId.length() - suffix.length());
+        }
+    }
 }
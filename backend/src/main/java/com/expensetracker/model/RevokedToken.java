@@ -0,0 +1,37 @@
+package com.expensetracker.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+import java.time.LocalDateTime;
+
+/**
+ * A JWT revoked before its expiry (logout). Removed by the TTL index once the token has expired anyway.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "revoked_tokens")
+public class RevokedToken {
+    
+    @Id
+    private String tokenId; // jti claim, or the token digest for tokens issued without one
+    
+    @Field("user_id")
+    private String userId;
+    
+    @Field("revoked_at")
+    @Indexed
+    private LocalDateTime revokedAt;
+    
+    @Field("expires_at")
+    @Indexed(expireAfterSeconds = 0)
+    private LocalDateTime expiresAt;
+}
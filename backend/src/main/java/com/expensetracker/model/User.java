@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.mongodb.core.mapping.Document;
 import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.index.Indexed;
 
 import jakarta.validation.constraints.Email;
@@ -22,6 +23,7 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Document(collection = "users")
+@CompoundIndex(name = "is_active_user_id", def = "{'is_active': 1, 'user_id': 1}")
 public class User {
     
     @Id
@@ -72,6 +74,9 @@ public class User {
     @Builder.Default
     private Boolean isActive = true;
     
+    @Field("deletion_requested_at")
+    private LocalDateTime deletionRequestedAt; // Set while the account's data is being purged
+    
     // Helper method to generate user ID from email
     public static String generateUserIdFromEmail(String email) {
         return email.split("@")[0].toLowerCase();
@@ -90,6 +95,11 @@ public class User {
     
     // Check if user account is valid for authentication
     public boolean isAccountValid() {
-        return this.isActive != null && this.isActive;
+        return this.isActive != null && this.isActive && !isDeleting();
+    }
+    
+    // Check if the account is scheduled for removal
+    public boolean isDeleting() {
+        return this.deletionRequestedAt != null;
     }
 }
@@ -0,0 +1,57 @@
+package com.expensetracker.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+import org.springframework.data.mongodb.core.mapping.FieldType;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Lifetime expense counters for a user, keyed by userId.
+ * Maintained with atomic $inc/$min/$max updates on every expense change,
+ * so reading a user's totals is a single document read.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "user_stats")
+public class UserExpenseStats {
+    
+    @Id
+    private String userId;
+    
+    @Field("expense_count")
+    @Builder.Default
+    private Long expenseCount = 0L;
+    
+    @Field(name = "total_amount", targetType = FieldType.DECIMAL128)
+    @Builder.Default
+    private BigDecimal totalAmount = BigDecimal.ZERO;
+    
+    @Field("first_expense_date")
+    private LocalDate firstExpenseDate;
+    
+    @Field("last_expense_date")
+    private LocalDate lastExpenseDate;
+    
+    @Field("updated_at")
+    private LocalDateTime updatedAt;
+    
+    @Field("reconciled_at")
+    private LocalDateTime reconciledAt;
+    
+    // Counters for a user without any expense
+    public static UserExpenseStats empty(String userId) {
+        return UserExpenseStats.builder()
+                .userId(userId)
+                .build();
+    }
+}
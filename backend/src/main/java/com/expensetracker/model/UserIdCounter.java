@@ -0,0 +1,27 @@
+package com.expensetracker.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.Document;
+import org.springframework.data.mongodb.core.mapping.Field;
+
+/**
+ * Last suffix handed out for a userId prefix (the email local part).
+ * Suffix 0 is the bare prefix, then prefix1, prefix2, ...
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Document(collection = "user_id_counters")
+public class UserIdCounter {
+    
+    @Id
+    private String prefix;
+    
+    @Field("seq")
+    private Long seq;
+}
@@ -0,0 +1,43 @@
+package com.expensetracker.repository;
+
+import com.expensetracker.model.BackgroundJob;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository interface for BackgroundJob entity
+ */
+@Repository
+public interface BackgroundJobRepository extends MongoRepository<BackgroundJob, String> {
+
+    /**
+     * Find job by jobId
+     */
+    Optional<BackgroundJob> findByJobId(String jobId);
+
+    /**
+     * Find jobs in the given states (used to resume interrupted jobs)
+     */
+    List<BackgroundJob> findByStatusIn(Collection<BackgroundJob.JobStatus> statuses);
+
+    /**
+     * Find jobs for a target entity, newest first
+     */
+    List<BackgroundJob> findByTargetIdOrderByCreatedAtDesc(String targetId);
+
+    /**
+     * Find jobs of a type in the given states for any of the targets
+     */
+    List<BackgroundJob> findByTypeAndStatusInAndTargetIdIn(BackgroundJob.JobType type,
+                                                           Collection<BackgroundJob.JobStatus> statuses,
+                                                           Collection<String> targetIds);
+
+    /**
+     * Check if a job of the type is in one of the given states
+     */
+    boolean existsByTypeAndStatusIn(BackgroundJob.JobType type, Collection<BackgroundJob.JobStatus> statuses);
+}
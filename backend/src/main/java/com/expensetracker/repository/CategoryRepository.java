@@ -19,6 +19,16 @@ public interface CategoryRepository extends MongoRepository<Category, String> {
      */
     Optional<Category> findByCategoryId(String categoryId);
     
+    /**
+     * Find first category with categoryId (safe while legacy duplicates still exist)
+     */
+    Optional<Category> findFirstByCategoryId(String categoryId);
+    
+    /**
+     * Check if a category is stored under the categoryId
+     */
+    boolean existsByCategoryId(String categoryId);
+    
     /**
      * Find all categories for a specific user
      */
@@ -64,6 +64,16 @@ public interface ExpenseRepository extends MongoRepository<Expense, String> {
      */
     List<Expense> findByUserIdAndPayeeContainingIgnoreCase(String userId, String payee);
     
+    /**
+     * Find a user's earliest expense
+     */
+    Optional<Expense> findFirstByUserIdOrderByDateAsc(String userId);
+    
+    /**
+     * Find a user's latest expense
+     */
+    Optional<Expense> findFirstByUserIdOrderByDateDesc(String userId);
+    
     /**
      * Count expenses for a user
      */
@@ -113,6 +123,16 @@ public interface ExpenseRepository extends MongoRepository<Expense, String> {
     })
     List<CategoryExpenseSummary> findCategoryWiseSummary(String userId);
     
+    /**
+     * Per-category usage for a user: expense count, total amount and last expense date.
+     * Amounts are summed through $toDecimal so string-encoded BigDecimals are counted too.
+     */
+    @Aggregation(pipeline = {
+        "{ '$match': { 'user_id': ?0 } }",
+        "{ '$group': { '_id': '$category_id', 'count': { '$sum': 1 }, 'total': { '$sum': { '$toDecimal': '$amount' } }, 'lastUsed': { '$max': '$date' } } }"
+    })
+    List<CategoryUsageSummary> findCategoryUsageByUserId(String userId);
+    
     /**
      * Find monthly expense trends
      */
@@ -147,6 +167,13 @@ public interface ExpenseRepository extends MongoRepository<Expense, String> {
         BigDecimal getTotal();
     }
     
+    interface CategoryUsageSummary {
+        String getId(); // category id
+        Long getCount();
+        BigDecimal getTotal();
+        LocalDate getLastUsed();
+    }
+    
     interface MonthlyExpenseSummary {
         MonthYear getId();
         Long getCount();
@@ -2,7 +2,6 @@ package com.expensetracker.repository;
 
 import com.expensetracker.model.User;
 import org.springframework.data.mongodb.repository.MongoRepository;
-import org.springframework.data.mongodb.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -33,12 +32,6 @@ public interface UserRepository extends MongoRepository<User, String> {
      */
     boolean existsByEmail(String email);
     
-    /**
-     * Find all active users
-     */
-    @Query("{'is_active': true}")
-    java.util.List<User> findAllActiveUsers();
-    
     /**
      * Delete user by userId
      */
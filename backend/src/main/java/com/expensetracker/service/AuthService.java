@@ -4,9 +4,9 @@ import com.expensetracker.dto.AuthRequestDto;
 import com.expensetracker.dto.AuthResponseDto;
 import com.expensetracker.model.User;
 import com.expensetracker.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,12 +19,18 @@ import java.util.Optional;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "service.method", histogram = true, percentiles = {0.5, 0.95, 0.99})
 public class AuthService {
     
     private final UserRepository userRepository;
     private final CategoryService categoryService;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtService jwtService;
+    private final UserIdAllocator userIdAllocator;
+    private final LastLoginRecorder lastLoginRecorder;
+    private final TokenRevocationService tokenRevocationService;
+    private final VerifiedTokenCache verifiedTokenCache;
+    private final UserStatusCache userStatusCache;
     
     /**
      * Register a new user
@@ -44,14 +50,14 @@ public class AuthService {
         }
         
         // Generate unique user ID from email
-        String userId = generateUniqueUserId(request.getEmail());
+        String userId = userIdAllocator.allocate(request.getEmail());
         
         // Create new user
         User user = User.builder()
                 .userId(userId)
                 .name(request.getName())
                 .email(request.getEmail())
-                .password(passwordEncoder.encode(request.getPassword()))
+                .password(passwordHashingService.encode(request.getPassword()))
                 .role("USER")
                 .isActive(true)
                 .emailVerified(false)
@@ -64,7 +70,7 @@ public class AuthService {
         
         // Initialize default categories for the new user
         try {
-            categoryService.createDefaultCategories(userId);
+            categoryService.initializeCategoriesForNewUser(userId);
             log.info("Default categories initialized for user: {}", userId);
         } catch (Exception e) {
             log.warn("Failed to initialize default categories for user: {}, error: {}", userId, e.getMessage());
@@ -100,13 +106,13 @@ public class AuthService {
         }
         
         // Verify password
-        if (!passwordEncoder.matches(request.getPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getPassword(), user.getPassword())) {
             throw new RuntimeException("Invalid email or password");
         }
         
-        // Update last login
-        user.updateLastLogin();
-        userRepository.save(user);
+        // Update last login (written in the background, only the last_login field)
+        user.setLastLogin(LocalDateTime.now());
+        lastLoginRecorder.record(user.getUserId(), user.getLastLogin());
         
         // Generate JWT token
         String token = jwtService.generateToken(user.getUserId(), user.getEmail(), user.getRole());
@@ -138,14 +144,15 @@ public class AuthService {
                 .orElseThrow(() -> new RuntimeException("User not found"));
         
         // Verify current password
-        if (!passwordEncoder.matches(request.getCurrentPassword(), user.getPassword())) {
+        if (!passwordHashingService.matches(request.getCurrentPassword(), user.getPassword())) {
             throw new RuntimeException("Current password is incorrect");
         }
         
         // Update password
-        user.setPassword(passwordEncoder.encode(request.getNewPassword()));
+        user.setPassword(passwordHashingService.encode(request.getNewPassword()));
         user.updateTimestamp();
         userRepository.save(user);
+        userStatusCache.invalidate(userId);
         
         log.info("Password changed successfully for user: {}", userId);
         
@@ -159,17 +166,25 @@ public class AuthService {
      */
     public AuthResponseDto.TokenValidationResponse validateToken(String token) {
         try {
-            if (!jwtService.validateToken(token)) {
+            Optional<JwtService.VerifiedToken> verified = verifiedTokenCache.verify(token);
+            if (verified.isEmpty()) {
                 return AuthResponseDto.TokenValidationResponse.builder()
                         .valid(false)
                         .message("Invalid or expired token")
                         .build();
             }
             
-            String userId = jwtService.extractUserId(token);
-            Optional<User> userOpt = userRepository.findByUserId(userId);
+            if (tokenRevocationService.isRevoked(verified.get().tokenId())) {
+                return AuthResponseDto.TokenValidationResponse.builder()
+                        .valid(false)
+                        .message("Token has been revoked")
+                        .build();
+            }
+            
+            String userId = verified.get().userId();
+            Optional<UserStatusCache.CachedUser> userOpt = userStatusCache.get(userId, this::mapToUserInfo);
             
-            if (userOpt.isEmpty() || !userOpt.get().isAccountValid()) {
+            if (userOpt.isEmpty() || !userOpt.get().accountValid()) {
                 return AuthResponseDto.TokenValidationResponse.builder()
                         .valid(false)
                         .message("User not found or account inactive")
@@ -179,7 +194,7 @@ public class AuthService {
             return AuthResponseDto.TokenValidationResponse.builder()
                     .valid(true)
                     .message("Token is valid")
-                    .user(mapToUserInfo(userOpt.get()))
+                    .user(userOpt.get().userInfo())
                     .build();
                     
         } catch (Exception e) {
@@ -195,28 +210,28 @@ public class AuthService {
      * Get user info by token
      */
     public AuthResponseDto.UserInfo getUserInfo(String token) {
-        String userId = jwtService.extractUserId(token);
-        User user = userRepository.findByUserId(userId)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        JwtService.VerifiedToken verified = verifiedTokenCache.verify(token)
+                .filter(t -> !tokenRevocationService.isRevoked(t.tokenId()))
+                .orElseThrow(() -> new RuntimeException("Invalid or revoked token"));
         
-        return mapToUserInfo(user);
+        return userStatusCache.get(verified.userId(), this::mapToUserInfo)
+                .map(UserStatusCache.CachedUser::userInfo)
+                .orElseThrow(() -> new RuntimeException("User not found"));
     }
     
     /**
-     * Generate unique user ID from email
+     * Logout: revoke the token so it is rejected from now on, even before it expires
      */
-    private String generateUniqueUserId(String email) {
-        String baseUserId = User.generateUserIdFromEmail(email);
-        String userId = baseUserId;
-        int counter = 1;
-        
-        // Ensure uniqueness
-        while (userRepository.findByUserId(userId).isPresent()) {
-            userId = baseUserId + counter;
-            counter++;
-        }
+    public AuthResponseDto.MessageResponse logout(String token) {
+        jwtService.verifyToken(token).ifPresent(verified -> {
+            tokenRevocationService.revoke(verified);
+            verifiedTokenCache.invalidate(token);
+            log.info("User logged out: {}", verified.userId());
+        });
         
-        return userId;
+        return AuthResponseDto.MessageResponse.builder()
+                .message("Logout successful")
+                .build();
     }
     
     /**
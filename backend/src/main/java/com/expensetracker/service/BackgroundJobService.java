@@ -0,0 +1,300 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.BackgroundJob;
+import com.expensetracker.repository.BackgroundJobRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Runs persisted background jobs on a small dedicated pool.
+ * Jobs work in bounded, throttled batches and store a checkpoint after each batch,
+ * so an interrupted job is picked up again from where it stopped.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BackgroundJobService {
+
+    private final BackgroundJobRepository jobRepository;
+    private final MongoTemplate mongoTemplate;
+
+    private final Map<BackgroundJob.JobType, Consumer<BackgroundJob>> handlers = new ConcurrentHashMap<>();
+
+    @Value("${jobs.pool-size:2}")
+    private int poolSize;
+
+    @Value("${jobs.batch-size:500}")
+    private int batchSize;
+
+    @Value("${jobs.throttle-ms:50}")
+    private long throttleMs;
+
+    @Value("${jobs.stale-after-seconds:120}")
+    private long staleAfterSeconds;
+
+    private ExecutorService executor;
+
+    @PostConstruct
+    void startExecutor() {
+        AtomicInteger threadCounter = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "background-job-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void stopExecutor() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Register the code that executes jobs of the given type
+     */
+    public void registerHandler(BackgroundJob.JobType type, Consumer<BackgroundJob> handler) {
+        handlers.put(type, handler);
+    }
+
+    /**
+     * Persist a new job and schedule it for execution
+     */
+    public BackgroundJob submit(BackgroundJob job) {
+        job.setJobId(BackgroundJob.generateJobId(job.getType()));
+        job.setStatus(BackgroundJob.JobStatus.PENDING);
+        job.setHeartbeatAt(LocalDateTime.now());
+
+        BackgroundJob savedJob = jobRepository.save(job);
+        log.info("Submitted {} job {} for target: {}", savedJob.getType(), savedJob.getJobId(), savedJob.getTargetId());
+
+        executor.execute(() -> run(savedJob));
+        return savedJob;
+    }
+
+    /**
+     * Get job by jobId or throw exception
+     */
+    public BackgroundJob getJobOrThrow(String jobId) {
+        return jobRepository.findByJobId(jobId)
+                .orElseThrow(() -> new RuntimeException("Job not found: " + jobId));
+    }
+
+    /**
+     * Get jobs for a target entity, newest first
+     */
+    public List<BackgroundJob> getJobsForTarget(String targetId) {
+        return jobRepository.findByTargetIdOrderByCreatedAtDesc(targetId);
+    }
+
+    /**
+     * Targets among the given ones that a job of this type is still pending or running for
+     */
+    public Set<String> getActiveTargets(BackgroundJob.JobType type, Collection<String> targetIds) {
+        if (targetIds.isEmpty()) {
+            return Set.of();
+        }
+        return jobRepository.findByTypeAndStatusInAndTargetIdIn(type,
+                        EnumSet.of(BackgroundJob.JobStatus.PENDING, BackgroundJob.JobStatus.RUNNING), targetIds)
+                .stream()
+                .map(BackgroundJob::getTargetId)
+                .collect(Collectors.toSet());
+    }
+
+    /**
+     * Whether a job of this type is still pending or running
+     */
+    public boolean hasActiveJob(BackgroundJob.JobType type) {
+        return jobRepository.existsByTypeAndStatusIn(type,
+                EnumSet.of(BackgroundJob.JobStatus.PENDING, BackgroundJob.JobStatus.RUNNING));
+    }
+
+    /**
+     * Walk the documents matching the criteria in _id order, one bounded batch at a time.
+     * The action receives the _id values of a batch and returns how many documents it changed.
+     * Progress and checkpoint are persisted after every batch.
+     */
+    public void processInBatches(BackgroundJob job, Criteria criteria, Class<?> entityClass,
+                                 Function<List<Object>, Long> batchAction) {
+        while (true) {
+            Query query = new Query(criteria);
+            if (job.getCheckpoint() != null) {
+                query.addCriteria(Criteria.where("_id").gt(toIdValue(job.getCheckpoint())));
+            }
+            query.with(Sort.by(Sort.Direction.ASC, "_id")).limit(batchSize);
+            query.fields().include("_id");
+
+            List<Object> ids = mongoTemplate.query(entityClass)
+                    .as(Document.class)
+                    .matching(query)
+                    .all()
+                    .stream()
+                    .map(document -> document.get("_id"))
+                    .toList();
+
+            if (ids.isEmpty()) {
+                return;
+            }
+
+            long affected = batchAction.apply(ids);
+            checkpoint(job, ids.get(ids.size() - 1).toString(), affected);
+
+            if (ids.size() < batchSize) {
+                return;
+            }
+            throttle();
+        }
+    }
+
+    /**
+     * Record progress of a running job
+     */
+    public void checkpoint(BackgroundJob job, String checkpoint, long processedDelta) {
+        job.setCheckpoint(checkpoint);
+        job.setProcessed(job.getProcessed() + processedDelta);
+        job.setHeartbeatAt(LocalDateTime.now());
+        job.updateTimestamp();
+        jobRepository.save(job);
+    }
+
+    /**
+     * Move a multi-step job to its next phase, resetting the batch checkpoint
+     */
+    public void startPhase(BackgroundJob job, String phase) {
+        job.setPhase(phase);
+        job.setCheckpoint(null);
+        job.setHeartbeatAt(LocalDateTime.now());
+        job.updateTimestamp();
+        jobRepository.save(job);
+    }
+
+    /**
+     * Pick up jobs whose worker stopped sending heartbeats (crash, restart, redeploy)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${jobs.recovery-interval-ms:60000}", initialDelayString = "${jobs.recovery-interval-ms:60000}")
+    public void resumeInterruptedJobs() {
+        LocalDateTime staleBefore = LocalDateTime.now().minusSeconds(staleAfterSeconds);
+        List<BackgroundJob> unfinished = jobRepository.findByStatusIn(
+                EnumSet.of(BackgroundJob.JobStatus.PENDING, BackgroundJob.JobStatus.RUNNING));
+
+        for (BackgroundJob job : unfinished) {
+            if (job.getHeartbeatAt() != null && job.getHeartbeatAt().isAfter(staleBefore)) {
+                continue; // Still owned by a live worker
+            }
+            if (!handlers.containsKey(job.getType()) || !claim(job)) {
+                continue;
+            }
+            log.info("Resuming {} job {} from checkpoint: {}", job.getType(), job.getJobId(), job.getCheckpoint());
+            executor.execute(() -> run(job));
+        }
+    }
+
+    /**
+     * Atomically take ownership of a stale job so only one instance resumes it
+     */
+    private boolean claim(BackgroundJob job) {
+        LocalDateTime now = LocalDateTime.now();
+        Query query = new Query(Criteria.where("jobId").is(job.getJobId())
+                .and("heartbeatAt").is(job.getHeartbeatAt()));
+        BackgroundJob claimed = mongoTemplate.findAndModify(query,
+                new Update().set("heartbeatAt", now),
+                FindAndModifyOptions.options().returnNew(true),
+                BackgroundJob.class);
+        if (claimed == null) {
+            return false;
+        }
+        job.setHeartbeatAt(claimed.getHeartbeatAt());
+        return true;
+    }
+
+    private void run(BackgroundJob job) {
+        Consumer<BackgroundJob> handler = handlers.get(job.getType());
+        if (handler == null) {
+            finish(job, BackgroundJob.JobStatus.FAILED, null, "No handler registered for job type: " + job.getType());
+            return;
+        }
+
+        job.setStatus(BackgroundJob.JobStatus.RUNNING);
+        job.setHeartbeatAt(LocalDateTime.now());
+        job.updateTimestamp();
+        jobRepository.save(job);
+
+        try {
+            handler.accept(job);
+            finish(job, BackgroundJob.JobStatus.COMPLETED, job.getMessage(), null);
+            log.info("{} job {} completed, processed: {}", job.getType(), job.getJobId(), job.getProcessed());
+        } catch (CancellationException e) {
+            if (executor.isShutdown()) {
+                // Interrupted by shutdown: leave it unfinished so the next start resumes it
+                log.info("{} job {} interrupted by shutdown at checkpoint: {}", job.getType(), job.getJobId(), job.getCheckpoint());
+                return;
+            }
+            finish(job, BackgroundJob.JobStatus.CANCELLED, e.getMessage(), null);
+            log.info("{} job {} cancelled: {}", job.getType(), job.getJobId(), e.getMessage());
+        } catch (Exception e) {
+            log.error("{} job {} failed", job.getType(), job.getJobId(), e);
+            finish(job, BackgroundJob.JobStatus.FAILED, null, e.getMessage());
+        }
+    }
+
+    private void finish(BackgroundJob job, BackgroundJob.JobStatus status, String message, String error) {
+        job.setStatus(status);
+        job.setMessage(message);
+        job.setError(error);
+        job.setCompletedAt(LocalDateTime.now());
+        job.updateTimestamp();
+        jobRepository.save(job);
+    }
+
+    /**
+     * Pause between batches so foreground traffic keeps its share of the database
+     */
+    public void throttle() {
+        if (throttleMs <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(throttleMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CancellationException("Job interrupted");
+        }
+    }
+
+    /**
+     * Convert a stored checkpoint back to an _id value
+     */
+    public static Object toIdValue(String checkpoint) {
+        return ObjectId.isValid(checkpoint) ? new ObjectId(checkpoint) : checkpoint;
+    }
+}
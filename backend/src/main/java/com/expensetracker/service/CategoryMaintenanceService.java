@@ -0,0 +1,288 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.BackgroundJob;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CancellationException;
+
+/**
+ * Bulk maintenance of expenses that reference a category.
+ * Expenses keep a denormalized copy of the category name, so category changes
+ * are cascaded with batched updates keyed on category_id.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryMaintenanceService {
+
+    private final MongoTemplate mongoTemplate;
+    private final BackgroundJobService backgroundJobService;
+
+    private static final String PHASE_MERGE = "MERGE_DUPLICATES";
+    private static final String PHASE_CREATE_INDEX = "CREATE_UNIQUE_INDEX";
+
+    @PostConstruct
+    void registerJobHandlers() {
+        backgroundJobService.registerHandler(BackgroundJob.JobType.CATEGORY_RENAME, this::runRenameCascade);
+        backgroundJobService.registerHandler(BackgroundJob.JobType.CATEGORY_REASSIGN, this::runReassignment);
+        backgroundJobService.registerHandler(BackgroundJob.JobType.CATEGORY_COMPACTION, this::runCompaction);
+    }
+
+    /**
+     * Start copying the category's current name into every expense that references it
+     */
+    public BackgroundJob startRenameCascade(Category category) {
+        log.info("Starting rename cascade for category {} to '{}'", category.getCategoryId(), category.getName());
+
+        Map<String, String> params = new HashMap<>();
+        params.put("name", category.getName());
+
+        BackgroundJob job = BackgroundJob.builder()
+                .type(BackgroundJob.JobType.CATEGORY_RENAME)
+                .userId(category.getUserId())
+                .targetId(category.getCategoryId())
+                .params(params)
+                .build();
+
+        return backgroundJobService.submit(job);
+    }
+
+    private void runRenameCascade(BackgroundJob job) {
+        String categoryId = job.getTargetId();
+        String newName = job.getParam("name");
+
+        // Expenses already carrying the new name drop out of the filter, so re-runs are idempotent
+        Criteria staleExpenses = Criteria.where("categoryId").is(categoryId).and("category").ne(newName);
+
+        if (job.getCheckpoint() == null) {
+            job.setTotal(mongoTemplate.count(new Query(staleExpenses), Expense.class));
+        }
+
+        backgroundJobService.processInBatches(job, staleExpenses, Expense.class, ids -> {
+            ensureStillNamed(categoryId, newName);
+
+            Query batch = new Query(Criteria.where("_id").in(ids).and("categoryId").is(categoryId));
+            Update update = new Update()
+                    .set("category", newName)
+                    .set("updatedAt", LocalDateTime.now());
+            return mongoTemplate.updateMulti(batch, update, Expense.class).getModifiedCount();
+        });
+
+        job.setMessage("Renamed " + job.getProcessed() + " expenses to '" + newName + "'");
+    }
+
+    /**
+     * Start moving every expense of a deleted category to the target category
+     */
+    public BackgroundJob startReassignment(Category deletedCategory, Category targetCategory) {
+        log.info("Starting reassignment of expenses from {} to {}",
+                deletedCategory.getCategoryId(), targetCategory.getCategoryId());
+
+        Map<String, String> params = new HashMap<>();
+        params.put("targetCategoryId", targetCategory.getCategoryId());
+        params.put("targetName", targetCategory.getName());
+
+        BackgroundJob job = BackgroundJob.builder()
+                .type(BackgroundJob.JobType.CATEGORY_REASSIGN)
+                .userId(deletedCategory.getUserId())
+                .targetId(deletedCategory.getCategoryId())
+                .params(params)
+                .build();
+
+        return backgroundJobService.submit(job);
+    }
+
+    private void runReassignment(BackgroundJob job) {
+        String categoryId = job.getTargetId();
+        String targetCategoryId = job.getParam("targetCategoryId");
+        String targetName = job.getParam("targetName");
+
+        Criteria affectedExpenses = Criteria.where("categoryId").is(categoryId);
+
+        if (job.getCheckpoint() == null) {
+            job.setTotal(mongoTemplate.count(new Query(affectedExpenses), Expense.class));
+        }
+
+        backgroundJobService.processInBatches(job, affectedExpenses, Expense.class, ids -> {
+            Query batch = new Query(Criteria.where("_id").in(ids).and("categoryId").is(categoryId));
+            Update update = new Update()
+                    .set("categoryId", targetCategoryId)
+                    .set("category", targetName)
+                    .set("updatedAt", LocalDateTime.now());
+            return mongoTemplate.updateMulti(batch, update, Expense.class).getModifiedCount();
+        });
+
+        job.setMessage("Moved " + job.getProcessed() + " expenses to '" + targetName + "'");
+    }
+
+    /**
+     * Start merging categories that share a categoryId (per user), then enforce a unique index on category_id
+     */
+    public BackgroundJob startCompaction() {
+        log.info("Starting duplicate category compaction");
+
+        BackgroundJob job = BackgroundJob.builder()
+                .type(BackgroundJob.JobType.CATEGORY_COMPACTION)
+                .build();
+
+        return backgroundJobService.submit(job);
+    }
+
+    private void runCompaction(BackgroundJob job) {
+        if (!PHASE_CREATE_INDEX.equals(job.getPhase())) {
+            backgroundJobService.startPhase(job, PHASE_MERGE);
+
+            // Merged groups drop out of this result, so a resumed job only sees what is left
+            List<String> duplicateCategoryIds = findDuplicateCategoryIds();
+            job.setTotal(job.getProcessed() + duplicateCategoryIds.size());
+            log.info("Found {} category IDs with duplicates", duplicateCategoryIds.size());
+
+            for (String categoryId : duplicateCategoryIds) {
+                mergeDuplicates(categoryId);
+                backgroundJobService.checkpoint(job, categoryId, 1);
+            }
+
+            backgroundJobService.startPhase(job, PHASE_CREATE_INDEX);
+        }
+
+        createUniqueCategoryIdIndex();
+        job.setMessage("Merged " + job.getProcessed() + " duplicated category IDs, unique index on category_id in place");
+    }
+
+    /**
+     * Group categories by categoryId and keep the groups with more than one document
+     */
+    private List<String> findDuplicateCategoryIds() {
+        TypedAggregation<Category> aggregation = Aggregation.newAggregation(Category.class,
+                Aggregation.group("categoryId").count().as("count"),
+                Aggregation.match(Criteria.where("count").gt(1))
+        ).withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+
+        return mongoTemplate.aggregate(aggregation, Document.class)
+                .getMappedResults()
+                .stream()
+                .map(group -> group.getString("_id"))
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    /**
+     * Merge the copies of a categoryId within each user, keeping each user's most recently updated one.
+     * Legacy ids can also collide across users (e.g. "bob" + "street food" and "bob_street" + "Food"):
+     * the user with the most recent copy keeps the id, every other user's copy gets a new id and
+     * takes that user's expenses along. Nothing is ever merged into another user's category.
+     */
+    private void mergeDuplicates(String categoryId) {
+        List<Category> duplicates = mongoTemplate.find(
+                new Query(Criteria.where("categoryId").is(categoryId)).with(Sort.by(Sort.Direction.DESC, "updatedAt")),
+                Category.class);
+        if (duplicates.size() < 2) {
+            return;
+        }
+
+        // Insertion order follows updatedAt, so the first user is the one keeping the id
+        Map<String, List<Category>> byUser = new LinkedHashMap<>();
+        for (Category category : duplicates) {
+            byUser.computeIfAbsent(category.getUserId(), userId -> new ArrayList<>()).add(category);
+        }
+
+        boolean owner = true;
+        for (Map.Entry<String, List<Category>> copies : byUser.entrySet()) {
+            String newCategoryId = owner ? categoryId : Category.withUniqueSuffix(categoryId);
+            mergeUserCopies(categoryId, newCategoryId, copies.getKey(), copies.getValue());
+            owner = false;
+        }
+    }
+
+    /**
+     * Keep the user's most recently updated copy under newCategoryId, drop the others and align the user's expenses
+     */
+    private void mergeUserCopies(String categoryId, String newCategoryId, String userId, List<Category> copies) {
+        Category survivor = copies.get(0);
+        List<String> removedIds = copies.subList(1, copies.size()).stream()
+                .map(Category::getId)
+                .toList();
+        if (!removedIds.isEmpty()) {
+            mongoTemplate.remove(new Query(Criteria.where("_id").in(removedIds)), Category.class);
+        }
+
+        Update categoryUpdate = new Update();
+        boolean anyDefault = copies.stream().anyMatch(c -> Boolean.TRUE.equals(c.getIsDefault()));
+        if (anyDefault && !Boolean.TRUE.equals(survivor.getIsDefault())) {
+            categoryUpdate.set("isDefault", true);
+        }
+        boolean renumbered = !newCategoryId.equals(categoryId);
+        if (renumbered) {
+            categoryUpdate.set("categoryId", newCategoryId);
+        }
+        if (!categoryUpdate.getUpdateObject().isEmpty()) {
+            mongoTemplate.updateFirst(new Query(Criteria.where("_id").is(survivor.getId())), categoryUpdate, Category.class);
+        }
+
+        Criteria usersExpenses = Criteria.where("categoryId").is(categoryId).and("userId").is(userId);
+        if (!renumbered) {
+            usersExpenses = usersExpenses.and("category").ne(survivor.getName());
+        }
+        Update expenseUpdate = new Update()
+                .set("categoryId", newCategoryId)
+                .set("category", survivor.getName())
+                .set("updatedAt", LocalDateTime.now());
+        long repointed = mongoTemplate.updateMulti(new Query(usersExpenses), expenseUpdate, Expense.class).getModifiedCount();
+
+        log.info("Merged {} duplicates of category {} for user {} into {}, repointed {} expenses",
+                removedIds.size(), categoryId, userId, newCategoryId, repointed);
+    }
+
+    /**
+     * Replace a plain category_id index (if any) with a unique one
+     */
+    private void createUniqueCategoryIdIndex() {
+        IndexOperations indexOps = mongoTemplate.indexOps(Category.class);
+
+        for (IndexInfo index : indexOps.getIndexInfo()) {
+            boolean onCategoryIdOnly = index.getIndexFields().size() == 1
+                    && index.isIndexForFields(List.of("category_id"));
+            if (onCategoryIdOnly && !index.isUnique()) {
+                log.info("Dropping non-unique index {} on categories.category_id", index.getName());
+                indexOps.dropIndex(index.getName());
+            }
+        }
+
+        indexOps.ensureIndex(new Index().on("category_id", Sort.Direction.ASC).unique());
+        log.info("Unique index on categories.category_id is in place");
+    }
+
+    /**
+     * A later rename starts its own cascade; this one must stop so it cannot overwrite the newer name
+     */
+    private void ensureStillNamed(String categoryId, String name) {
+        Query query = new Query(Criteria.where("categoryId").is(categoryId).and("name").is(name));
+        if (!mongoTemplate.exists(query, Category.class)) {
+            throw new CancellationException("Superseded by a newer rename of category " + categoryId);
+        }
+    }
+}
@@ -1,15 +1,32 @@
 package com.expensetracker.service;
 
 import com.expensetracker.dto.CategoryRequestDto;
+import com.expensetracker.dto.CategoryStatsDto;
+import com.expensetracker.model.BackgroundJob;
 import com.expensetracker.model.Category;
 import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 /**
  * Service class for Category operations
@@ -17,29 +34,56 @@ import java.util.Optional;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "service.method", histogram = true, percentiles = {0.5, 0.95, 0.99})
 public class CategoryService {
     
     private final CategoryRepository categoryRepository;
+    private final CategoryMaintenanceService categoryMaintenanceService;
+    private final BackgroundJobService backgroundJobService;
+    private final UserRepository userRepository;
+    private final ExpenseRepository expenseRepository;
+    private final MongoTemplate mongoTemplate;
+    
+    public static final String DEFAULT_REASSIGN_CATEGORY = "Others";
+    
+    /**
+     * When enabled, default categories are not written at registration. They are served
+     * from the shared template and stored for a user only once edited or referenced.
+     */
+    @Value("${categories.lazy-defaults:false}")
+    private boolean lazyDefaults;
     
     /**
-     * Create default categories for a new user
+     * Set up categories for a newly registered user
+     */
+    @Transactional
+    public void initializeCategoriesForNewUser(String userId) {
+        if (lazyDefaults) {
+            log.debug("Lazy default categories enabled, nothing to write for user: {}", userId);
+            return;
+        }
+        createDefaultCategories(userId);
+    }
+    
+    /**
+     * Create default categories for a user (only the ones not stored yet)
      */
     @Transactional
     public List<Category> createDefaultCategories(String userId) {
         log.info("Creating default categories for user: {}", userId);
         
-        // Check if default categories already exist
-        List<Category> existingCategories = categoryRepository.findDefaultCategoriesByUserId(userId);
-        if (!existingCategories.isEmpty()) {
+        List<Category> existingCategories = categoryRepository.findByUserId(userId);
+        List<Category> missingDefaults = missingTemplateCategories(userId, existingCategories);
+        
+        if (missingDefaults.isEmpty()) {
             log.info("Default categories already exist for user: {}", userId);
-            return existingCategories;
+            return categoryRepository.findDefaultCategoriesByUserId(userId);
         }
         
-        List<Category> defaultCategories = Category.getDefaultCategories(userId);
-        List<Category> savedCategories = categoryRepository.saveAll(defaultCategories);
+        List<Category> savedCategories = categoryRepository.saveAll(missingDefaults);
         
         log.info("Created {} default categories for user: {}", savedCategories.size(), userId);
-        return savedCategories;
+        return categoryRepository.findDefaultCategoriesByUserId(userId);
     }
     
     /**
@@ -50,11 +94,17 @@ public class CategoryService {
         log.info("Creating custom category '{}' for user: {}", categoryRequest.getName(), userId);
         
         // Check if category with same name already exists for this user
-        if (categoryRepository.existsByUserIdAndName(userId, categoryRequest.getName())) {
+        if (categoryRepository.existsByUserIdAndName(userId, categoryRequest.getName())
+                || isStillVirtualDefault(userId, categoryRequest.getName())) {
             throw new RuntimeException("Category with name '" + categoryRequest.getName() + "' already exists for user: " + userId);
         }
         
         String categoryId = Category.generateCategoryId(userId, categoryRequest.getName());
+        if (looksLikeDefaultCategoryId(categoryId)) {
+            // e.g. "street food" for "bob" reads as the Food default of a user "bob_street", and a
+            // renamed default keeps its id; a suffix keeps custom ids apart from any default's
+            categoryId = Category.withUniqueSuffix(categoryId);
+        }
         
         Category category = Category.builder()
                 .categoryId(categoryId)
@@ -77,7 +127,8 @@ public class CategoryService {
      */
     public List<Category> getCategoriesByUserId(String userId) {
         log.debug("Fetching categories for user: {}", userId);
-        return categoryRepository.findByUserIdOrderByName(userId);
+        List<Category> categories = categoryRepository.findByUserIdOrderByName(userId);
+        return lazyDefaults ? withVirtualDefaults(userId, categories) : categories;
     }
     
     /**
@@ -91,21 +142,10 @@ public class CategoryService {
      * Get category by categoryId or throw exception
      */
     public Category getCategoryByIdOrThrow(String categoryId) {
-        List<Category> categories = categoryRepository.findAll()
-                .stream()
-                .filter(c -> c.getCategoryId().equals(categoryId))
-                .toList();
-        
-        if (categories.isEmpty()) {
-            throw new RuntimeException("Category not found: " + categoryId);
-        }
-        
-        // Return the first category if duplicates exist
-        if (categories.size() > 1) {
-            log.warn("Found {} duplicate categories with ID: {}, returning first one", categories.size(), categoryId);
-        }
-        
-        return categories.get(0);
+        // Indexed point read; category_id is unique once the compaction job has run
+        return categoryRepository.findFirstByCategoryId(categoryId)
+                .or(() -> findVirtualDefault(categoryId))
+                .orElseThrow(() -> new RuntimeException("Category not found: " + categoryId));
     }
     
     /**
@@ -115,7 +155,7 @@ public class CategoryService {
     public Category updateCategory(String categoryId, CategoryRequestDto categoryRequest) {
         log.info("Updating category: {}", categoryId);
         
-        Category category = getCategoryByIdOrThrow(categoryId);
+        Category category = materialize(getCategoryByIdOrThrow(categoryId));
         
         // Check if new name conflicts with existing category (excluding current category)
         Optional<Category> existingCategory = categoryRepository.findByUserIdAndName(
@@ -125,6 +165,8 @@ public class CategoryService {
             throw new RuntimeException("Category with name '" + categoryRequest.getName() + "' already exists");
         }
         
+        String previousName = category.getName();
+        
         category.setName(categoryRequest.getName());
         category.setDescription(categoryRequest.getDescription());
         category.setColor(categoryRequest.getColor() != null ? categoryRequest.getColor() : category.getColor());
@@ -134,14 +176,20 @@ public class CategoryService {
         Category updatedCategory = categoryRepository.save(category);
         log.info("Category updated successfully: {}", categoryId);
         
+        // Expenses store the category name, so a rename is cascaded to them in the background
+        if (!previousName.equals(updatedCategory.getName())) {
+            categoryMaintenanceService.startRenameCascade(updatedCategory);
+        }
+        
         return updatedCategory;
     }
     
     /**
-     * Delete category
+     * Delete category and move its expenses to a target category ("Others" by default).
+     * The category is removed right away; its expenses are reassigned by a background job.
      */
     @Transactional
-    public void deleteCategory(String categoryId) {
+    public BackgroundJob deleteCategory(String categoryId, String targetCategoryId) {
         log.info("Deleting category: {}", categoryId);
         
         Category category = getCategoryByIdOrThrow(categoryId);
@@ -151,20 +199,40 @@ public class CategoryService {
             throw new RuntimeException("Cannot delete default category: " + categoryId);
         }
         
-        // TODO: Check if category is being used by any expenses
-        // For now, we'll allow deletion - in production, you might want to:
-        // 1. Prevent deletion if expenses exist
-        // 2. Or move expenses to "Others" category
+        Category targetCategory;
+        if (targetCategoryId != null && !targetCategoryId.isEmpty()) {
+            // Validate before materializing so a foreign virtual default is never written
+            targetCategory = getCategoryByIdOrThrow(targetCategoryId);
+            if (!targetCategory.getUserId().equals(category.getUserId())
+                    || targetCategory.getCategoryId().equals(categoryId)) {
+                throw new RuntimeException("Invalid target category: " + targetCategoryId);
+            }
+            targetCategory = materialize(targetCategory);
+        } else {
+            targetCategory = getOrCreateDefaultCategory(category.getUserId(), DEFAULT_REASSIGN_CATEGORY);
+        }
         
+        // Remove the category first so no new expense can reference it while the job runs
         categoryRepository.delete(category);
-        log.info("Category deleted successfully: {}", categoryId);
+        BackgroundJob job = categoryMaintenanceService.startReassignment(category, targetCategory);
+        
+        log.info("Category deleted successfully: {}, expenses moving to: {}", categoryId, targetCategory.getCategoryId());
+        return job;
+    }
+    
+    /**
+     * Get background jobs (rename cascades, reassignments) started for a category
+     */
+    public List<BackgroundJob> getCategoryJobs(String categoryId) {
+        return backgroundJobService.getJobsForTarget(categoryId);
     }
     
     /**
      * Get default categories for a user
      */
     public List<Category> getDefaultCategories(String userId) {
-        return categoryRepository.findDefaultCategoriesByUserId(userId);
+        List<Category> defaults = categoryRepository.findDefaultCategoriesByUserId(userId);
+        return lazyDefaults ? withVirtualDefaults(userId, defaults) : defaults;
     }
     
     /**
@@ -172,6 +240,12 @@ public class CategoryService {
      */
     public List<Category> searchCategoriesByName(String userId, String searchTerm) {
         log.debug("Searching categories for user '{}' with term: {}", userId, searchTerm);
+        if (lazyDefaults) {
+            String term = searchTerm.toLowerCase();
+            return getCategoriesByUserId(userId).stream()
+                    .filter(c -> c.getName().toLowerCase().contains(term))
+                    .toList();
+        }
         return categoryRepository.findByUserIdAndNameContaining(userId, searchTerm);
     }
     
@@ -179,9 +253,43 @@ public class CategoryService {
      * Get category count for user
      */
     public long getCategoryCountForUser(String userId) {
+        if (lazyDefaults) {
+            return getCategoriesByUserId(userId).size();
+        }
         return categoryRepository.countByUserId(userId);
     }
     
+    /**
+     * Get expense count, total amount and last-used date for each of the user's categories,
+     * computed by a single grouped aggregation over the user's expenses
+     */
+    public List<CategoryStatsDto> getCategoryStats(String userId) {
+        log.debug("Computing category stats for user: {}", userId);
+        
+        Map<String, ExpenseRepository.CategoryUsageSummary> usageByCategoryId = expenseRepository
+                .findCategoryUsageByUserId(userId)
+                .stream()
+                .filter(usage -> usage.getId() != null)
+                .collect(Collectors.toMap(ExpenseRepository.CategoryUsageSummary::getId, usage -> usage));
+        
+        return getCategoriesByUserId(userId).stream()
+                .map(category -> {
+                    ExpenseRepository.CategoryUsageSummary usage = usageByCategoryId.get(category.getCategoryId());
+                    return CategoryStatsDto.builder()
+                            .categoryId(category.getCategoryId())
+                            .categoryName(category.getName())
+                            .color(category.getColor())
+                            .icon(category.getIcon())
+                            .isDefault(category.getIsDefault())
+                            .expenseCount(usage != null ? usage.getCount() : 0L)
+                            .totalAmount(usage != null && usage.getTotal() != null ? usage.getTotal() : BigDecimal.ZERO)
+                            .lastUsed(usage != null ? usage.getLastUsed() : null)
+                            .build();
+                })
+                .sorted(Comparator.comparing(CategoryStatsDto::getTotalAmount).reversed())
+                .toList();
+    }
+    
     /**
      * Delete all categories for a user
      */
@@ -196,10 +304,19 @@ public class CategoryService {
      * Validate if category exists and belongs to user
      */
     public boolean validateCategoryForUser(String categoryId, String userId) {
-        Optional<Category> category = categoryRepository.findByCategoryId(categoryId);
+        Optional<Category> category = categoryRepository.findByCategoryId(categoryId)
+                .or(() -> findVirtualDefault(categoryId));
         return category.isPresent() && category.get().getUserId().equals(userId);
     }
     
+    /**
+     * Get category by categoryId for use by an expense, storing it first if it is still virtual
+     */
+    @Transactional
+    public Category getCategoryForUse(String categoryId) {
+        return materialize(getCategoryByIdOrThrow(categoryId));
+    }
+    
     /**
      * Get or create default category for user
      */
@@ -211,6 +328,12 @@ public class CategoryService {
             return existingCategory.get();
         }
         
+        // Default categories are stored from the template on first use
+        Optional<Category.DefaultCategory> template = findTemplate(categoryName);
+        if (lazyDefaults && template.isPresent()) {
+            return materialize(template.get().toCategory(userId));
+        }
+        
         // Create new category
         CategoryRequestDto categoryRequest = CategoryRequestDto.builder()
                 .name(categoryName)
@@ -219,4 +342,102 @@ public class CategoryService {
         
         return createCategory(userId, categoryRequest);
     }
+    
+    /**
+     * Store a virtual default category for its user. Idempotent: concurrent first uses
+     * upsert the same document keyed on categoryId.
+     */
+    private Category materialize(Category category) {
+        if (category.getId() != null) {
+            return category;
+        }
+        
+        log.info("Materializing default category {} for user: {}", category.getCategoryId(), category.getUserId());
+        
+        Query query = new Query(Criteria.where("categoryId").is(category.getCategoryId()));
+        Update update = new Update()
+                .setOnInsert("userId", category.getUserId())
+                .setOnInsert("name", category.getName())
+                .setOnInsert("description", category.getDescription())
+                .setOnInsert("color", category.getColor())
+                .setOnInsert("icon", category.getIcon())
+                .setOnInsert("isDefault", category.getIsDefault())
+                .setOnInsert("createdAt", category.getCreatedAt())
+                .setOnInsert("updatedAt", category.getUpdatedAt());
+        
+        return mongoTemplate.findAndModify(query, update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), Category.class);
+    }
+    
+    /**
+     * Resolve a categoryId that belongs to a default category the user has not stored yet
+     */
+    private Optional<Category> findVirtualDefault(String categoryId) {
+        if (!lazyDefaults) {
+            return Optional.empty();
+        }
+        
+        for (Category.DefaultCategory template : Category.DEFAULT_TEMPLATE) {
+            String userId = template.userIdFromCategoryId(categoryId);
+            if (userId != null && userRepository.existsByUserId(userId)) {
+                return Optional.of(template.toCategory(userId));
+            }
+        }
+        return Optional.empty();
+    }
+    
+    /**
+     * Whether the name is a default category the user has not stored (and so not renamed) yet
+     */
+    private boolean isStillVirtualDefault(String userId, String categoryName) {
+        if (!lazyDefaults) {
+            return false;
+        }
+        return findTemplate(categoryName)
+                .map(template -> !categoryRepository.existsByCategoryId(template.categoryIdFor(userId)))
+                .orElse(false);
+    }
+    
+    private static boolean looksLikeDefaultCategoryId(String categoryId) {
+        return Category.DEFAULT_TEMPLATE.stream()
+                .anyMatch(template -> template.userIdFromCategoryId(categoryId) != null);
+    }
+    
+    private Optional<Category.DefaultCategory> findTemplate(String categoryName) {
+        return Category.DEFAULT_TEMPLATE.stream()
+                .filter(template -> template.name().equalsIgnoreCase(categoryName))
+                .findFirst();
+    }
+    
+    /**
+     * Template categories the user has neither stored nor replaced by name
+     */
+    private List<Category> missingTemplateCategories(String userId, List<Category> storedCategories) {
+        Set<String> storedIds = storedCategories.stream()
+                .map(Category::getCategoryId)
+                .collect(Collectors.toSet());
+        Set<String> storedNames = storedCategories.stream()
+                .map(c -> c.getName().toLowerCase())
+                .collect(Collectors.toSet());
+        
+        return Category.getDefaultCategories(userId).stream()
+                .filter(c -> !storedIds.contains(c.getCategoryId()))
+                .filter(c -> !storedNames.contains(c.getName().toLowerCase()))
+                .toList();
+    }
+    
+    /**
+     * Merge stored categories with the virtual defaults the user has not materialized
+     */
+    private List<Category> withVirtualDefaults(String userId, List<Category> storedCategories) {
+        List<Category> virtualDefaults = missingTemplateCategories(userId, storedCategories);
+        if (virtualDefaults.isEmpty()) {
+            return storedCategories;
+        }
+        
+        List<Category> merged = new ArrayList<>(storedCategories);
+        merged.addAll(virtualDefaults);
+        merged.sort(Comparator.comparing(Category::getName));
+        return merged;
+    }
 }
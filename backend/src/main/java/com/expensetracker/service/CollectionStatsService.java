@@ -0,0 +1,169 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collection statistics as reported by the server: collStats for sizes and
+ * $indexStats for per-index usage, plus domain counts computed with count/aggregation queries.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CollectionStatsService {
+    
+    private final MongoTemplate mongoTemplate;
+    
+    private static final List<Class<?>> COLLECTIONS = List.of(User.class, Category.class, Expense.class);
+    
+    /**
+     * Storage and index statistics for the application's collections, keyed by collection name
+     */
+    public Map<String, Object> getStorageStats() {
+        Map<String, Object> storage = new LinkedHashMap<>();
+        for (Class<?> entityClass : COLLECTIONS) {
+            String collection = mongoTemplate.getCollectionName(entityClass);
+            storage.put(collection, describeCollection(collection));
+        }
+        return storage;
+    }
+    
+    /**
+     * Index names and keys as defined on the server
+     */
+    public List<Map<String, Object>> getIndexDefinitions(Class<?> entityClass) {
+        List<Map<String, Object>> indexes = new ArrayList<>();
+        for (Document index : mongoTemplate.getCollection(mongoTemplate.getCollectionName(entityClass)).listIndexes()) {
+            Map<String, Object> definition = new LinkedHashMap<>();
+            definition.put("name", index.getString("name"));
+            definition.put("key", index.get("key"));
+            definition.put("unique", index.getBoolean("unique", false));
+            if (index.containsKey("expireAfterSeconds")) {
+                definition.put("expire_after_seconds", index.get("expireAfterSeconds"));
+            }
+            indexes.add(definition);
+        }
+        return indexes;
+    }
+    
+    /**
+     * User, category and expense counts without loading documents
+     */
+    public Map<String, Object> getDomainStats() {
+        Map<String, Object> stats = new HashMap<>();
+        
+        Map<String, Object> userStats = new HashMap<>();
+        userStats.put("total_users", mongoTemplate.count(new Query(), User.class));
+        userStats.put("active_users", mongoTemplate.count(new Query(Criteria.where("isActive").is(true)), User.class));
+        userStats.put("verified_users", mongoTemplate.count(new Query(Criteria.where("emailVerified").is(true)), User.class));
+        stats.put("users", userStats);
+        
+        Map<String, Object> categoryStats = new HashMap<>();
+        long totalCategories = mongoTemplate.count(new Query(), Category.class);
+        long defaultCategories = mongoTemplate.count(new Query(Criteria.where("isDefault").is(true)), Category.class);
+        categoryStats.put("total_categories", totalCategories);
+        categoryStats.put("default_categories", defaultCategories);
+        categoryStats.put("custom_categories", totalCategories - defaultCategories);
+        stats.put("categories", categoryStats);
+        
+        Map<String, Object> expenseStats = new HashMap<>();
+        long totalExpenses = 0;
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        Map<String, Long> paymentMethods = new HashMap<>();
+        
+        TypedAggregation<Expense> byPaymentMethod = Aggregation.newAggregation(Expense.class,
+                Aggregation.group("paymentMethod")
+                        .count().as("count")
+                        .sum(ConvertOperators.ToDecimal.toDecimal("$amount")).as("total"));
+        for (Document group : mongoTemplate.aggregate(byPaymentMethod, Document.class).getMappedResults()) {
+            long count = ((Number) group.get("count")).longValue();
+            String method = group.getString("_id") != null ? group.getString("_id") : "Unknown";
+            paymentMethods.merge(method, count, Long::sum);
+            totalExpenses += count;
+            totalAmount = totalAmount.add(toBigDecimal(group.get("total")));
+        }
+        
+        expenseStats.put("total_expenses", totalExpenses);
+        if (totalExpenses > 0) {
+            expenseStats.put("total_amount", totalAmount.doubleValue());
+            expenseStats.put("average_amount", totalAmount.doubleValue() / totalExpenses);
+            expenseStats.put("payment_methods", paymentMethods);
+        }
+        stats.put("expenses", expenseStats);
+        
+        return stats;
+    }
+    
+    private Map<String, Object> describeCollection(String collection) {
+        Map<String, Object> description = new LinkedHashMap<>();
+        
+        try {
+            Document collStats = mongoTemplate.executeCommand(new Document("collStats", collection));
+            description.put("count", collStats.get("count"));
+            description.put("avg_obj_size", collStats.get("avgObjSize"));
+            description.put("size", collStats.get("size"));
+            description.put("storage_size", collStats.get("storageSize"));
+            description.put("total_index_size", collStats.get("totalIndexSize"));
+            description.put("index_sizes", collStats.get("indexSizes"));
+        } catch (Exception e) {
+            log.warn("collStats failed for {}: {}", collection, e.getMessage());
+            description.put("coll_stats_error", e.getMessage());
+        }
+        
+        try {
+            List<Map<String, Object>> indexUsage = new ArrayList<>();
+            List<String> unusedIndexes = new ArrayList<>();
+            for (Document index : mongoTemplate.getCollection(collection)
+                    .aggregate(List.of(new Document("$indexStats", new Document())))) {
+                Document accesses = index.get("accesses", Document.class);
+                long ops = accesses != null && accesses.get("ops") != null ? ((Number) accesses.get("ops")).longValue() : 0;
+                Date since = accesses != null ? accesses.getDate("since") : null;
+                
+                Map<String, Object> usage = new LinkedHashMap<>();
+                usage.put("name", index.getString("name"));
+                usage.put("key", index.get("key"));
+                usage.put("ops", ops);
+                usage.put("since", since);
+                indexUsage.add(usage);
+                
+                if (ops == 0 && !"_id_".equals(index.getString("name"))) {
+                    unusedIndexes.add(index.getString("name"));
+                }
+            }
+            description.put("index_usage", indexUsage);
+            description.put("unused_indexes", unusedIndexes); // Since the counters were last reset (server restart)
+        } catch (Exception e) {
+            log.warn("$indexStats failed for {}: {}", collection, e.getMessage());
+            description.put("index_stats_error", e.getMessage());
+        }
+        
+        return description;
+    }
+    
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof Decimal128 decimal) {
+            return decimal.bigDecimalValue();
+        }
+        return value instanceof Number number ? new BigDecimal(number.toString()) : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,203 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.BackgroundJob;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.User;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Database schema and integrity analysis, run as a background job.
+ * Orphan checks group on the server and $lookup once per owner, and field-usage
+ * checks stop at the first match (optionally on a $sample), so memory stays flat
+ * however large the collections are.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DatabaseAnalysisService {
+    
+    private final MongoTemplate mongoTemplate;
+    private final BackgroundJobService backgroundJobService;
+    private final CollectionStatsService collectionStatsService;
+    
+    private static final int STEPS = 4;
+    
+    @PostConstruct
+    void registerJobHandlers() {
+        backgroundJobService.registerHandler(BackgroundJob.JobType.DATABASE_ANALYSIS, this::runAnalysis);
+    }
+    
+    /**
+     * Start an analysis; sampleSize > 0 checks field usage on a random sample instead of the full collection
+     */
+    public BackgroundJob startAnalysis(int sampleSize) {
+        log.info("Starting database analysis with sample size: {}", sampleSize);
+        
+        Map<String, String> params = new HashMap<>();
+        params.put("sampleSize", String.valueOf(Math.max(0, sampleSize)));
+        
+        BackgroundJob job = BackgroundJob.builder()
+                .type(BackgroundJob.JobType.DATABASE_ANALYSIS)
+                .params(params)
+                .build();
+        
+        return backgroundJobService.submit(job);
+    }
+    
+    private void runAnalysis(BackgroundJob job) {
+        int sampleSize = Integer.parseInt(job.getParam("sampleSize"));
+        Map<String, Object> analysis = new LinkedHashMap<>();
+        job.setTotal((long) STEPS);
+        job.setProcessed(0L);
+        
+        // Collection counts
+        Map<String, Object> collections = new HashMap<>();
+        collections.put("users_count", mongoTemplate.count(new Query(), User.class));
+        collections.put("categories_count", mongoTemplate.count(new Query(), Category.class));
+        collections.put("expenses_count", mongoTemplate.count(new Query(), Expense.class));
+        analysis.put("collections", collections);
+        backgroundJobService.checkpoint(job, "collections", 1);
+        
+        analysis.put("schemas", describeSchemas());
+        backgroundJobService.checkpoint(job, "schemas", 1);
+        
+        // Data integrity analysis
+        Map<String, Object> integrity = new HashMap<>();
+        integrity.put("orphaned_categories", countOrphans(Category.class, "userId", "users", "user_id"));
+        integrity.put("orphaned_expenses_by_user", countOrphans(Expense.class, "userId", "users", "user_id"));
+        integrity.put("orphaned_expenses_by_category", countOrphans(Expense.class, "categoryId", "categories", "category_id"));
+        analysis.put("data_integrity", integrity);
+        backgroundJobService.checkpoint(job, "data_integrity", 1);
+        
+        // Schema issues
+        List<String> issues = new ArrayList<>();
+        List<String> recommendations = new ArrayList<>();
+        
+        if (!isUsed(Expense.class, Criteria.where("receiptUrl").ne(null), sampleSize)) {
+            issues.add("receiptUrl field is unused in all expenses");
+            recommendations.add("Consider removing receiptUrl field or implement receipt upload feature");
+        }
+        
+        if (!isUsed(Expense.class, Criteria.where("location").ne(null), sampleSize)) {
+            issues.add("location field is unused in all expenses");
+            recommendations.add("Consider removing location field or implement location tracking");
+        }
+        
+        if (!isUsed(Expense.class, Criteria.where("isRecurring").is(true), sampleSize)) {
+            issues.add("recurring expense features are unused");
+            recommendations.add("Consider removing recurring fields or implement recurring expense feature");
+        }
+        
+        if (!isUsed(Expense.class, Criteria.where("tags.0").exists(true), sampleSize)) {
+            issues.add("tags field is unused in all expenses");
+            recommendations.add("Consider removing tags field or implement expense tagging");
+        }
+        
+        if (!isUsed(User.class, Criteria.where("emailVerified").is(true), sampleSize)) {
+            issues.add("Email verification feature is not implemented");
+            recommendations.add("Consider implementing email verification or remove emailVerified field");
+        }
+        
+        if (!isUsed(User.class, Criteria.where("lastLogin").ne(null), sampleSize)) {
+            issues.add("Last login tracking is not being used");
+            recommendations.add("Consider implementing last login tracking or remove lastLogin field");
+        }
+        
+        analysis.put("schema_issues", issues);
+        analysis.put("recommendations", recommendations);
+        analysis.put("field_usage_sample_size", sampleSize > 0 ? sampleSize : "all");
+        backgroundJobService.checkpoint(job, "schema_issues", 1);
+        
+        job.setResult(analysis);
+        job.setMessage("Found " + issues.size() + " schema issues");
+    }
+    
+    /**
+     * Count documents whose reference has no matching owner.
+     * Documents are grouped by reference first, so the $lookup runs once per distinct value.
+     */
+    private long countOrphans(Class<?> entityClass, String referenceField, String ownerCollection, String ownerField) {
+        TypedAggregation<?> aggregation = Aggregation.newAggregation(entityClass,
+                Aggregation.match(Criteria.where(referenceField).ne(null)),
+                Aggregation.group(referenceField).count().as("count"),
+                Aggregation.lookup(ownerCollection, "_id", ownerField, "owner"),
+                Aggregation.match(Criteria.where("owner").size(0)),
+                Aggregation.group().sum("count").as("orphans")
+        ).withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+        
+        try (Stream<Document> result = mongoTemplate.aggregateStream(aggregation, Document.class)) {
+            return result.findFirst()
+                    .map(document -> ((Number) document.get("orphans")).longValue())
+                    .orElse(0L);
+        }
+    }
+    
+    /**
+     * Whether any document (or any sampled document) matches; stops at the first match
+     */
+    private boolean isUsed(Class<?> entityClass, Criteria criteria, int sampleSize) {
+        if (sampleSize <= 0) {
+            return mongoTemplate.exists(new Query(criteria), entityClass);
+        }
+        
+        List<AggregationOperation> stages = List.of(
+                Aggregation.sample(sampleSize),
+                Aggregation.match(criteria),
+                Aggregation.limit(1));
+        return !mongoTemplate.aggregate(Aggregation.newAggregation(entityClass, stages), Document.class)
+                .getMappedResults()
+                .isEmpty();
+    }
+    
+    private Map<String, Object> describeSchemas() {
+        Map<String, Object> samples = new HashMap<>();
+        
+        if (mongoTemplate.exists(new Query(), User.class)) {
+            Map<String, Object> userSample = new HashMap<>();
+            userSample.put("fields", Arrays.asList("id", "userId", "name", "email", "role", "emailVerified",
+                "lastLogin", "createdAt", "updatedAt", "isActive"));
+            userSample.put("indexes", collectionStatsService.getIndexDefinitions(User.class));
+            samples.put("user_schema", userSample);
+        }
+        
+        if (mongoTemplate.exists(new Query(), Category.class)) {
+            Map<String, Object> categorySample = new HashMap<>();
+            categorySample.put("fields", Arrays.asList("id", "categoryId", "userId", "name", "description",
+                "color", "icon", "isDefault", "createdAt", "updatedAt"));
+            categorySample.put("indexes", collectionStatsService.getIndexDefinitions(Category.class));
+            samples.put("category_schema", categorySample);
+        }
+        
+        if (mongoTemplate.exists(new Query(), Expense.class)) {
+            Map<String, Object> expenseSample = new HashMap<>();
+            expenseSample.put("fields", Arrays.asList("id", "expenseId", "userId", "amount", "category",
+                "categoryId", "date", "time", "payee", "description", "paymentMethod", "tags",
+                "receiptUrl", "location", "isRecurring", "recurringFrequency", "notes",
+                "createdAt", "updatedAt", "source"));
+            expenseSample.put("indexes", collectionStatsService.getIndexDefinitions(Expense.class));
+            samples.put("expense_schema", expenseSample);
+        }
+        
+        return samples;
+    }
+}
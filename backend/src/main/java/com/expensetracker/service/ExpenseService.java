@@ -5,6 +5,7 @@ import com.expensetracker.dto.ExpenseSummaryDto;
 import com.expensetracker.model.Category;
 import com.expensetracker.model.Expense;
 import com.expensetracker.repository.ExpenseRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -25,11 +26,13 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Timed(value = "service.method", histogram = true, percentiles = {0.5, 0.95, 0.99})
 public class ExpenseService {
     
     private final ExpenseRepository expenseRepository;
     private final CategoryService categoryService;
     private final UserService userService;
+    private final UserStatsService userStatsService;
     
     /**
      * Create a new expense
@@ -70,6 +73,7 @@ public class ExpenseService {
                 .build();
         
         Expense savedExpense = expenseRepository.save(expense);
+        userStatsService.recordExpenseAdded(savedExpense);
         log.info("Expense created successfully: {}", savedExpense.getExpenseId());
         
         return savedExpense;
@@ -118,6 +122,10 @@ public class ExpenseService {
         // Validate and get category if changed
         Category category = validateAndGetCategory(expense.getUserId(), expenseRequest);
         
+        // Keep the previous values so the user's counters can be adjusted by the difference
+        BigDecimal previousAmount = expense.getAmount();
+        LocalDate previousDate = expense.getDate();
+        
         // Update expense fields
         expense.setAmount(expenseRequest.getAmount());
         expense.setCategory(category.getName());
@@ -135,6 +143,7 @@ public class ExpenseService {
         expense.updateTimestamp();
         
         Expense updatedExpense = expenseRepository.save(expense);
+        userStatsService.recordExpenseUpdated(previousAmount, previousDate, updatedExpense);
         log.info("Expense updated successfully: {}", expenseId);
         
         return updatedExpense;
@@ -149,6 +158,7 @@ public class ExpenseService {
         
         Expense expense = getExpenseByIdOrThrow(expenseId);
         expenseRepository.delete(expense);
+        userStatsService.recordExpenseRemoved(expense);
         
         log.info("Expense deleted successfully: {}", expenseId);
     }
@@ -367,7 +377,7 @@ public class ExpenseService {
         if (expenseRequest.getCategoryId() != null && !expenseRequest.getCategoryId().isEmpty()) {
             // Use provided category ID
             try {
-                category = categoryService.getCategoryByIdOrThrow(expenseRequest.getCategoryId());
+                category = categoryService.getCategoryForUse(expenseRequest.getCategoryId());
                 if (!category.getUserId().equals(userId)) {
                     throw new RuntimeException("Invalid category ID: " + expenseRequest.getCategoryId());
                 }
@@ -2,14 +2,21 @@ package com.expensetracker.service;
 
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
 
 /**
  * JWT Token utility service
@@ -24,8 +31,20 @@ public class JwtService {
     @Value("${jwt.expiration:86400}") // 24 hours in seconds
     private Long jwtExpiration;
     
+    // Built once: the key and parser are immutable and thread-safe
+    private SecretKey signingKey;
+    private JwtParser parser;
+    
+    @PostConstruct
+    void initSigningKey() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+    }
+    
     private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes());
+        return signingKey;
     }
     
     /**
@@ -50,6 +69,7 @@ public class JwtService {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(now)
                 .setExpiration(expiration)
                 .signWith(getSigningKey(), SignatureAlgorithm.HS256)
@@ -60,88 +80,78 @@ public class JwtService {
      * Extract user ID from token
      */
     public String extractUserId(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return verifiedOrThrow(token).userId();
     }
     
     /**
      * Extract email from token
      */
     public String extractEmail(String token) {
-        return extractClaim(token, claims -> claims.get("email", String.class));
+        return verifiedOrThrow(token).email();
     }
     
     /**
      * Extract role from token
      */
     public String extractRole(String token) {
-        return extractClaim(token, claims -> claims.get("role", String.class));
+        return verifiedOrThrow(token).role();
     }
     
     /**
      * Extract expiration date from token
      */
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return verifiedOrThrow(token).expiresAt();
     }
     
     /**
-     * Extract specific claim from token
+     * Verify signature and expiry with a single parse and return the principal it carries
      */
-    public <T> T extractClaim(String token, java.util.function.Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
-    
-    /**
-     * Extract all claims from token
-     */
-    private Claims extractAllClaims(String token) {
+    public Optional<VerifiedToken> verifyToken(String token) {
         try {
-            return Jwts.parserBuilder()
-                    .setSigningKey(getSigningKey())
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-        } catch (JwtException e) {
-            log.error("JWT parsing error: {}", e.getMessage());
-            throw new RuntimeException("Invalid JWT token");
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            return Optional.of(new VerifiedToken(
+                    claims.getSubject(),
+                    claims.get("email", String.class),
+                    claims.get("role", String.class),
+                    claims.getExpiration(),
+                    claims.getId() != null ? claims.getId() : digest(token)));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.warn("JWT verification failed: {}", e.getMessage());
+            return Optional.empty();
         }
     }
     
-    /**
-     * Check if token is expired
-     */
-    public Boolean isTokenExpired(String token) {
-        try {
-            return extractExpiration(token).before(new Date());
-        } catch (Exception e) {
-            return true;
-        }
+    private VerifiedToken verifiedOrThrow(String token) {
+        return verifyToken(token).orElseThrow(() -> new RuntimeException("Invalid JWT token"));
     }
     
     /**
      * Validate token
      */
     public Boolean validateToken(String token, String userId) {
-        try {
-            final String extractedUserId = extractUserId(token);
-            return (extractedUserId.equals(userId) && !isTokenExpired(token));
-        } catch (Exception e) {
-            log.error("Token validation error: {}", e.getMessage());
-            return false;
-        }
+        return verifyToken(token)
+                .map(verified -> verified.userId().equals(userId))
+                .orElse(false);
     }
     
     /**
      * Validate token without user ID check
      */
     public Boolean validateToken(String token) {
+        // The parser rejects expired tokens, so one parse covers signature and expiry
+        return verifyToken(token).isPresent();
+    }
+    
+    /**
+     * SHA-256 digest of a token, used as its identity where the raw token should not be kept
+     */
+    public static String digest(String token) {
         try {
-            extractAllClaims(token);
-            return !isTokenExpired(token);
-        } catch (Exception e) {
-            log.error("Token validation error: {}", e.getMessage());
-            return false;
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(sha256.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
     
@@ -151,4 +161,10 @@ public class JwtService {
     public Long getExpirationTime() {
         return jwtExpiration;
     }
-}
\ No newline at end of file
+    
+    /**
+     * Principal carried by a token whose signature and expiry have been checked
+     */
+    public record VerifiedToken(String userId, String email, String role, Date expiresAt, String tokenId) {
+    }
+}
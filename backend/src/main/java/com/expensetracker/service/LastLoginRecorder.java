@@ -0,0 +1,75 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.User;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Coalesces last-login timestamps in memory and writes them periodically
+ * as one bulk of $set updates on last_login, instead of a full user save per login.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LastLoginRecorder {
+    
+    private final MongoTemplate mongoTemplate;
+    
+    // Latest login per userId since the previous flush
+    private final Map<String, LocalDateTime> pendingLogins = new ConcurrentHashMap<>();
+    
+    /**
+     * Remember a login; repeated logins of the same user before the next flush collapse into one write
+     */
+    public void record(String userId, LocalDateTime loginTime) {
+        pendingLogins.merge(userId, loginTime, (previous, current) -> current.isAfter(previous) ? current : previous);
+    }
+    
+    /**
+     * Write pending logins to the users collection
+     */
+    @Scheduled(fixedDelayString = "${auth.last-login-flush-ms:5000}")
+    @PreDestroy
+    public void flush() {
+        if (pendingLogins.isEmpty()) {
+            return;
+        }
+        
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, User.class);
+        int count = 0;
+        
+        for (String userId : new ArrayList<>(pendingLogins.keySet())) {
+            LocalDateTime loginTime = pendingLogins.remove(userId);
+            if (loginTime == null) {
+                continue;
+            }
+            bulk.updateOne(new Query(Criteria.where("userId").is(userId)), new Update().max("lastLogin", loginTime));
+            count++;
+        }
+        
+        if (count == 0) {
+            return;
+        }
+        
+        try {
+            bulk.execute();
+            log.debug("Flushed last login for {} users", count);
+        } catch (Exception e) {
+            // Losing a few last-login timestamps is preferable to retrying forever
+            log.warn("Failed to flush last login for {} users: {}", count, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,285 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.BackgroundJob;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.repository.UserRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Repairs expenses and categories whose userId or categoryId points at nothing.
+ * Orphans are streamed from anti-join aggregations in _id order and fixed in
+ * throttled bulk batches; the checkpoint is the last repaired _id.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OrphanRepairService {
+    
+    private final MongoTemplate mongoTemplate;
+    private final BackgroundJobService backgroundJobService;
+    private final CategoryService categoryService;
+    private final UserRepository userRepository;
+    private final UserStatsService userStatsService;
+    
+    @Value("${jobs.batch-size:500}")
+    private int batchSize;
+    
+    @Value("${categories.lazy-defaults:false}")
+    private boolean lazyDefaults;
+    
+    private static final String PHASE_EXPENSES_WITHOUT_USER = "EXPENSES_WITHOUT_USER";
+    private static final String PHASE_EXPENSES_WITHOUT_CATEGORY = "EXPENSES_WITHOUT_CATEGORY";
+    private static final String PHASE_CATEGORIES_WITHOUT_USER = "CATEGORIES_WITHOUT_USER";
+    
+    /**
+     * What to do with an orphan
+     */
+    public enum RepairPolicy {
+        DELETE,   // Remove every orphan
+        REASSIGN  // Move expenses of a missing category to the owner's "Others"; leave documents without an owner
+    }
+    
+    @PostConstruct
+    void registerJobHandlers() {
+        backgroundJobService.registerHandler(BackgroundJob.JobType.ORPHAN_REPAIR, this::runRepair);
+    }
+    
+    /**
+     * Start repairing orphaned expenses and categories with the given policy.
+     * A dry run only counts what would be repaired.
+     */
+    public BackgroundJob startRepair(RepairPolicy policy, boolean dryRun) {
+        log.info("Starting orphan repair with policy: {}, dry run: {}", policy, dryRun);
+        
+        Map<String, String> params = new HashMap<>();
+        params.put("policy", policy.name());
+        params.put("dryRun", String.valueOf(dryRun));
+        
+        BackgroundJob job = BackgroundJob.builder()
+                .type(BackgroundJob.JobType.ORPHAN_REPAIR)
+                .params(params)
+                .result(new LinkedHashMap<>())
+                .build();
+        
+        return backgroundJobService.submit(job);
+    }
+    
+    private void runRepair(BackgroundJob job) {
+        RepairPolicy policy = RepairPolicy.valueOf(job.getParam("policy"));
+        boolean dryRun = Boolean.parseBoolean(job.getParam("dryRun"));
+        if (job.getResult() == null) {
+            job.setResult(new LinkedHashMap<>());
+        }
+        
+        if (job.getPhase() == null) {
+            backgroundJobService.startPhase(job, PHASE_EXPENSES_WITHOUT_USER);
+        }
+        
+        if (PHASE_EXPENSES_WITHOUT_USER.equals(job.getPhase())) {
+            repairPhase(job, Expense.class, "userId", "user_id", "users", "user_id", batch ->
+                    policy == RepairPolicy.DELETE && !dryRun ? removeOwnerlessExpenses(batch) : 0L);
+            backgroundJobService.startPhase(job, PHASE_EXPENSES_WITHOUT_CATEGORY);
+        }
+        
+        if (PHASE_EXPENSES_WITHOUT_CATEGORY.equals(job.getPhase())) {
+            repairPhase(job, Expense.class, "categoryId", "category_id", "categories", "category_id", batch -> {
+                List<Document> orphans = withoutPendingReassignments(job, batch);
+                if (dryRun || orphans.isEmpty()) {
+                    return 0L;
+                }
+                return policy == RepairPolicy.DELETE ? removeExpenses(orphans) : reassignToOthers(orphans);
+            });
+            backgroundJobService.startPhase(job, PHASE_CATEGORIES_WITHOUT_USER);
+        }
+        
+        if (PHASE_CATEGORIES_WITHOUT_USER.equals(job.getPhase())) {
+            repairPhase(job, Category.class, "userId", "user_id", "users", "user_id", batch ->
+                    policy == RepairPolicy.DELETE && !dryRun ? removeAll(batch, Category.class) : 0L);
+        }
+        
+        job.setMessage((dryRun ? "Dry run, nothing changed, policy " : "Repaired " + job.getProcessed()
+                + " orphaned documents with policy ") + policy);
+    }
+    
+    /**
+     * Stream orphans after the checkpoint and hand them to the action in bounded batches.
+     * The action returns how many documents it changed; found/repaired counts go to the job result.
+     */
+    private void repairPhase(BackgroundJob job, Class<?> entityClass, String referenceField, String referenceColumn,
+                             String ownerCollection, String ownerField, Function<List<Document>, Long> batchAction) {
+        Criteria criteria = Criteria.where(referenceField).ne(null);
+        if (job.getCheckpoint() != null) {
+            criteria = criteria.and("_id").gt(BackgroundJobService.toIdValue(job.getCheckpoint()));
+        }
+        
+        // Anti-join: keep documents whose reference has no owner
+        TypedAggregation<?> aggregation = Aggregation.newAggregation(entityClass,
+                Aggregation.match(criteria),
+                Aggregation.sort(Sort.Direction.ASC, "_id"),
+                Aggregation.lookup(ownerCollection, referenceColumn, ownerField, "owner"),
+                Aggregation.match(Criteria.where("owner").size(0))
+        ).withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+        
+        long found = 0;
+        long repaired = 0;
+        try (Stream<Document> orphans = mongoTemplate.aggregateStream(aggregation, Document.class)) {
+            Iterator<Document> iterator = orphans.iterator();
+            List<Document> batch = new ArrayList<>(batchSize);
+            while (iterator.hasNext()) {
+                Document orphan = iterator.next();
+                if (isVirtualDefaultReference(orphan, referenceField)) {
+                    continue;
+                }
+                batch.add(orphan);
+                if (batch.size() == batchSize) {
+                    long changed = batchAction.apply(batch);
+                    found += batch.size();
+                    repaired += changed;
+                    backgroundJobService.checkpoint(job, batch.get(batch.size() - 1).get("_id").toString(), changed);
+                    batch = new ArrayList<>(batchSize);
+                    backgroundJobService.throttle();
+                }
+            }
+            if (!batch.isEmpty()) {
+                long changed = batchAction.apply(batch);
+                found += batch.size();
+                repaired += changed;
+                backgroundJobService.checkpoint(job, batch.get(batch.size() - 1).get("_id").toString(), changed);
+            }
+        }
+        
+        String key = job.getPhase().toLowerCase();
+        job.getResult().merge(key + "_found", found, (a, b) -> ((Number) a).longValue() + ((Number) b).longValue());
+        job.getResult().merge(key + "_repaired", repaired, (a, b) -> ((Number) a).longValue() + ((Number) b).longValue());
+        log.info("Orphan repair phase {}: found {}, repaired {}", job.getPhase(), found, repaired);
+    }
+    
+    /**
+     * Expenses of a deleted category look orphaned until its reassignment job has moved them to the
+     * target the user picked, so categories with a pending or running reassignment are left alone
+     */
+    List<Document> withoutPendingReassignments(BackgroundJob job, List<Document> batch) {
+        Set<String> categoryIds = batch.stream()
+                .map(document -> document.getString("category_id"))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Set<String> reassigning = backgroundJobService.getActiveTargets(BackgroundJob.JobType.CATEGORY_REASSIGN, categoryIds);
+        if (reassigning.isEmpty()) {
+            return batch;
+        }
+        
+        List<Document> orphans = batch.stream()
+                .filter(document -> !reassigning.contains(document.getString("category_id")))
+                .toList();
+        job.getResult().merge("skipped_pending_reassignment", (long) (batch.size() - orphans.size()),
+                (a, b) -> ((Number) a).longValue() + ((Number) b).longValue());
+        return orphans;
+    }
+    
+    private long removeAll(List<Document> batch, Class<?> entityClass) {
+        List<Object> ids = batch.stream().map(document -> document.get("_id")).toList();
+        return mongoTemplate.remove(new Query(Criteria.where("_id").in(ids)), entityClass).getDeletedCount();
+    }
+    
+    /**
+     * Remove expenses whose owner is gone, along with the owners' leftover counters
+     */
+    private long removeOwnerlessExpenses(List<Document> batch) {
+        long removed = removeAll(batch, Expense.class);
+        batch.stream()
+                .map(document -> document.getString("user_id"))
+                .filter(Objects::nonNull)
+                .distinct()
+                .forEach(userStatsService::deleteStats);
+        return removed;
+    }
+    
+    /**
+     * Remove expenses and take them off their owners' counters
+     */
+    private long removeExpenses(List<Document> batch) {
+        long removed = removeAll(batch, Expense.class);
+        batch.stream()
+                .filter(document -> document.getString("user_id") != null)
+                .collect(Collectors.groupingBy(document -> document.getString("user_id")))
+                .forEach((userId, expenses) -> userStatsService.recordExpensesRemoved(userId, expenses.size(),
+                        expenses.stream().map(OrphanRepairService::amountOf).reduce(BigDecimal.ZERO, BigDecimal::add)));
+        return removed;
+    }
+    
+    /**
+     * Point orphaned expenses at their owner's "Others" category, one bulk update per batch.
+     * Expenses whose owner is gone too are left alone: creating "Others" for them would only add orphans.
+     */
+    private long reassignToOthers(List<Document> batch) {
+        Map<String, List<Object>> idsByUser = batch.stream()
+                .filter(document -> document.getString("user_id") != null)
+                .collect(Collectors.groupingBy(document -> document.getString("user_id"),
+                        Collectors.mapping(document -> document.get("_id"), Collectors.toList())));
+        idsByUser.keySet().removeIf(userId -> !userRepository.existsByUserId(userId));
+        if (idsByUser.isEmpty()) {
+            return 0;
+        }
+        
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, Expense.class);
+        idsByUser.forEach((userId, ids) -> {
+            Category others = categoryService.getOrCreateDefaultCategory(userId, CategoryService.DEFAULT_REASSIGN_CATEGORY);
+            bulk.updateMulti(new Query(Criteria.where("_id").in(ids)), new Update()
+                    .set("categoryId", others.getCategoryId())
+                    .set("category", others.getName())
+                    .set("updatedAt", LocalDateTime.now()));
+        });
+        return bulk.execute().getModifiedCount();
+    }
+    
+    /**
+     * Default categories are served from a template until first use, so a reference to one is not an orphan
+     */
+    private boolean isVirtualDefaultReference(Document document, String referenceField) {
+        if (!lazyDefaults || !"categoryId".equals(referenceField)) {
+            return false;
+        }
+        String categoryId = document.getString("category_id");
+        String userId = document.getString("user_id");
+        return userId != null && Category.DEFAULT_TEMPLATE.stream()
+                .anyMatch(template -> template.categoryIdFor(userId).equals(categoryId));
+    }
+    
+    private static BigDecimal amountOf(Document expense) {
+        Object amount = expense.get("amount");
+        if (amount instanceof Decimal128 decimal) {
+            return decimal.bigDecimalValue();
+        }
+        return amount != null ? new BigDecimal(amount.toString()) : BigDecimal.ZERO;
+    }
+}
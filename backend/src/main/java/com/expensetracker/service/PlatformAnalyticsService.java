@@ -0,0 +1,319 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.PlatformAnalyticsDto;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.User;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Platform-wide spending reports (monthly volume, category and payment-method mix, user cohorts).
+ * The expenses collection is split into userId ranges that are aggregated in parallel on a
+ * fork-join pool; since ranges never share a user, per-user figures merge by simple addition.
+ * The report is cached and refreshed on a schedule.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PlatformAnalyticsService {
+    
+    private final MongoTemplate mongoTemplate;
+    
+    @Value("${analytics.parallelism:4}")
+    private int parallelism;
+    
+    @Value("${analytics.partitions:16}")
+    private int partitionCount;
+    
+    private ForkJoinPool pool;
+    private volatile PlatformAnalyticsDto cachedReport;
+    
+    @PostConstruct
+    void startPool() {
+        pool = new ForkJoinPool(parallelism);
+    }
+    
+    @PreDestroy
+    void stopPool() {
+        pool.shutdownNow();
+    }
+    
+    /**
+     * Get the cached report, computing it first if there is none yet
+     */
+    public PlatformAnalyticsDto getReport(boolean forceRefresh) {
+        PlatformAnalyticsDto report = cachedReport;
+        if (report != null && !forceRefresh) {
+            return report;
+        }
+        synchronized (this) {
+            // Callers that waited for a computation in progress reuse its result
+            if (!forceRefresh && cachedReport != null) {
+                return cachedReport;
+            }
+            return refresh();
+        }
+    }
+    
+    /**
+     * Recompute the report; concurrent callers wait for the same computation
+     */
+    @Scheduled(fixedDelayString = "${analytics.refresh-interval-ms:900000}",
+            initialDelayString = "${analytics.refresh-interval-ms:900000}")
+    public synchronized PlatformAnalyticsDto refresh() {
+        long startedAt = System.currentTimeMillis();
+        
+        List<UserIdRange> ranges = partitionByUserId();
+        Partial merged = pool.invoke(new ScanTask(ranges, 0, ranges.size()));
+        
+        cachedReport = merged.toReport(ranges.size(), System.currentTimeMillis() - startedAt);
+        log.info("Platform analytics computed over {} partitions in {} ms", ranges.size(), cachedReport.getComputeTimeMs());
+        return cachedReport;
+    }
+    
+    /**
+     * Split the userId space into ranges of about equal user counts ($bucketAuto over users).
+     * The first and last ranges are open so expenses of unknown users are still counted.
+     */
+    private List<UserIdRange> partitionByUserId() {
+        List<Document> pipeline = List.of(new Document("$bucketAuto", new Document("groupBy", "$user_id")
+                .append("buckets", Math.max(1, partitionCount))));
+        
+        List<String> lowerBounds = new ArrayList<>();
+        for (Document bucket : mongoTemplate.getCollection(mongoTemplate.getCollectionName(User.class))
+                .aggregate(pipeline).allowDiskUse(true)) {
+            lowerBounds.add(bucket.get("_id", Document.class).getString("min"));
+        }
+        
+        List<UserIdRange> ranges = new ArrayList<>();
+        if (lowerBounds.isEmpty()) {
+            ranges.add(new UserIdRange(null, null));
+            return ranges;
+        }
+        for (int i = 0; i < lowerBounds.size(); i++) {
+            String from = i == 0 ? null : lowerBounds.get(i);
+            String to = i + 1 < lowerBounds.size() ? lowerBounds.get(i + 1) : null;
+            ranges.add(new UserIdRange(from, to));
+        }
+        return ranges;
+    }
+    
+    /**
+     * Aggregate one userId range: all four reports in a single $facet pass
+     */
+    private Partial scanRange(UserIdRange range) {
+        Document userIdFilter = new Document();
+        if (range.from() != null) {
+            userIdFilter.append("$gte", range.from());
+        }
+        if (range.to() != null) {
+            userIdFilter.append("$lt", range.to());
+        }
+        Document match = userIdFilter.isEmpty() ? new Document() : new Document("user_id", userIdFilter);
+        
+        // Dates are stored as midnight in the JVM's zone; formatting them in UTC would shift month starts back
+        String timezone = ZoneId.systemDefault().getId();
+        Document month = new Document("$dateToString", new Document("format", "%Y-%m").append("date", "$date")
+                .append("timezone", timezone));
+        Document amount = new Document("$toDecimal", "$amount");
+        
+        Document facets = new Document()
+                .append("byMonth", List.of(
+                        new Document("$group", new Document("_id", new Document("month", month).append("user", "$user_id"))
+                                .append("count", new Document("$sum", 1))
+                                .append("total", new Document("$sum", amount))),
+                        new Document("$group", new Document("_id", "$_id.month")
+                                .append("count", new Document("$sum", "$count"))
+                                .append("total", new Document("$sum", "$total"))
+                                .append("users", new Document("$sum", 1)))))
+                .append("byCategory", List.of(
+                        new Document("$group", new Document("_id", "$category")
+                                .append("count", new Document("$sum", 1))
+                                .append("total", new Document("$sum", amount)))))
+                .append("byPaymentMethod", List.of(
+                        new Document("$group", new Document("_id", "$payment_method")
+                                .append("count", new Document("$sum", 1))
+                                .append("total", new Document("$sum", amount)))))
+                .append("cohorts", List.of(
+                        new Document("$group", new Document("_id", "$user_id")
+                                .append("first", new Document("$min", "$date"))),
+                        new Document("$group", new Document("_id",
+                                new Document("$dateToString", new Document("format", "%Y-%m").append("date", "$first")
+                                        .append("timezone", timezone)))
+                                .append("users", new Document("$sum", 1)))));
+        
+        List<Document> pipeline = List.of(new Document("$match", match), new Document("$facet", facets));
+        Document result = mongoTemplate.getCollection(mongoTemplate.getCollectionName(Expense.class))
+                .aggregate(pipeline).allowDiskUse(true).first();
+        
+        Partial partial = new Partial();
+        if (result == null) {
+            return partial;
+        }
+        for (Document row : result.getList("byMonth", Document.class)) {
+            partial.addMonth(row.getString("_id"), count(row, "count"), decimal(row.get("total")), count(row, "users"));
+        }
+        for (Document row : result.getList("byCategory", Document.class)) {
+            partial.categories.computeIfAbsent(nameOf(row), key -> new Tally()).add(count(row, "count"), decimal(row.get("total")));
+        }
+        for (Document row : result.getList("byPaymentMethod", Document.class)) {
+            partial.paymentMethods.computeIfAbsent(nameOf(row), key -> new Tally()).add(count(row, "count"), decimal(row.get("total")));
+        }
+        for (Document row : result.getList("cohorts", Document.class)) {
+            partial.cohorts.merge(nameOf(row), count(row, "users"), Long::sum);
+        }
+        return partial;
+    }
+    
+    /**
+     * Splits the ranges in halves until one is left, scanning leaves in parallel and merging on the way up
+     */
+    private class ScanTask extends RecursiveTask<Partial> {
+        
+        private final List<UserIdRange> ranges;
+        private final int from;
+        private final int to;
+        
+        ScanTask(List<UserIdRange> ranges, int from, int to) {
+            this.ranges = ranges;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected Partial compute() {
+            if (to - from <= 1) {
+                return from < to ? scanRange(ranges.get(from)) : new Partial();
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(ranges, from, middle);
+            left.fork();
+            Partial right = new ScanTask(ranges, middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+    
+    private record UserIdRange(String from, String to) {
+    }
+    
+    private static class Tally {
+        long count;
+        BigDecimal total = BigDecimal.ZERO;
+        long users;
+        
+        void add(long count, BigDecimal total) {
+            this.count += count;
+            this.total = this.total.add(total);
+        }
+    }
+    
+    /**
+     * Figures of one or more ranges
+     */
+    private static class Partial {
+        final Map<String, Tally> months = new TreeMap<>();
+        final Map<String, Tally> categories = new HashMap<>();
+        final Map<String, Tally> paymentMethods = new HashMap<>();
+        final Map<String, Long> cohorts = new TreeMap<>();
+        
+        void addMonth(String month, long count, BigDecimal total, long users) {
+            Tally tally = months.computeIfAbsent(month != null ? month : "Unknown", key -> new Tally());
+            tally.add(count, total);
+            tally.users += users;
+        }
+        
+        Partial merge(Partial other) {
+            other.months.forEach((month, tally) -> addMonth(month, tally.count, tally.total, tally.users));
+            other.categories.forEach((name, tally) -> categories.computeIfAbsent(name, key -> new Tally()).add(tally.count, tally.total));
+            other.paymentMethods.forEach((name, tally) -> paymentMethods.computeIfAbsent(name, key -> new Tally()).add(tally.count, tally.total));
+            other.cohorts.forEach((month, users) -> cohorts.merge(month, users, Long::sum));
+            return this;
+        }
+        
+        PlatformAnalyticsDto toReport(int partitions, long computeTimeMs) {
+            long totalExpenses = categories.values().stream().mapToLong(tally -> tally.count).sum();
+            BigDecimal totalAmount = categories.values().stream()
+                    .map(tally -> tally.total)
+                    .reduce(BigDecimal.ZERO, BigDecimal::add);
+            
+            List<PlatformAnalyticsDto.MonthlyVolume> monthlyVolume = new ArrayList<>();
+            months.forEach((month, tally) -> monthlyVolume.add(PlatformAnalyticsDto.MonthlyVolume.builder()
+                    .month(month)
+                    .expenseCount(tally.count)
+                    .totalAmount(tally.total)
+                    .activeUsers(tally.users)
+                    .build()));
+            
+            List<PlatformAnalyticsDto.Cohort> cohortList = new ArrayList<>();
+            cohorts.forEach((month, users) -> cohortList.add(PlatformAnalyticsDto.Cohort.builder()
+                    .firstExpenseMonth(month)
+                    .users(users)
+                    .build()));
+            
+            return PlatformAnalyticsDto.builder()
+                    .computedAt(LocalDateTime.now())
+                    .computeTimeMs(computeTimeMs)
+                    .partitions(partitions)
+                    .totalExpenses(totalExpenses)
+                    .totalAmount(totalAmount)
+                    .monthlyVolume(monthlyVolume)
+                    .categoryMix(toShares(categories, totalAmount))
+                    .paymentMethodMix(toShares(paymentMethods, totalAmount))
+                    .cohorts(cohortList)
+                    .build();
+        }
+        
+        private static List<PlatformAnalyticsDto.Share> toShares(Map<String, Tally> tallies, BigDecimal totalAmount) {
+            return tallies.entrySet().stream()
+                    .sorted(Comparator.comparing((Map.Entry<String, Tally> entry) -> entry.getValue().total).reversed())
+                    .map(entry -> PlatformAnalyticsDto.Share.builder()
+                            .name(entry.getKey())
+                            .expenseCount(entry.getValue().count)
+                            .totalAmount(entry.getValue().total)
+                            .percentage(totalAmount.signum() > 0
+                                    ? entry.getValue().total.multiply(BigDecimal.valueOf(100))
+                                            .divide(totalAmount, 2, RoundingMode.HALF_UP).doubleValue()
+                                    : 0.0)
+                            .build())
+                    .toList();
+        }
+    }
+    
+    private static String nameOf(Document row) {
+        Object id = row.get("_id");
+        return id != null ? id.toString() : "Unknown";
+    }
+    
+    private static long count(Document row, String field) {
+        Object value = row.get(field);
+        return value instanceof Number number ? number.longValue() : 0;
+    }
+    
+    private static BigDecimal decimal(Object value) {
+        if (value instanceof Decimal128 decimal) {
+            return decimal.bigDecimalValue();
+        }
+        return value instanceof Number number ? new BigDecimal(number.toString()) : BigDecimal.ZERO;
+    }
+}
@@ -0,0 +1,165 @@
+package com.expensetracker.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-client request limits: a lock-free token bucket per (endpoint class, client)
+ * plus a cap on concurrent requests per user. Each client drains only its own
+ * buckets, so one hot tenant cannot use up the capacity of others.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RateLimiter {
+    
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${rate-limit.auth.capacity:10}")
+    private int authCapacity;
+    
+    @Value("${rate-limit.auth.per-minute:10}")
+    private int authPerMinute;
+    
+    @Value("${rate-limit.heavy.capacity:20}")
+    private int heavyCapacity;
+    
+    @Value("${rate-limit.heavy.per-minute:60}")
+    private int heavyPerMinute;
+    
+    @Value("${rate-limit.standard.capacity:100}")
+    private int standardCapacity;
+    
+    @Value("${rate-limit.standard.per-minute:600}")
+    private int standardPerMinute;
+    
+    @Value("${rate-limit.max-concurrent-per-user:8}")
+    private int maxConcurrentPerUser;
+    
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+    
+    @PostConstruct
+    void registerMetrics() {
+        Gauge.builder("rate_limit.buckets", buckets, Map::size)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Kinds of endpoints with their own limits
+     */
+    public enum EndpointClass {
+        AUTH,     // Credential endpoints, limited per client IP
+        HEAVY,    // Aggregations and exports, limited per user
+        STANDARD  // Everything else, limited per user
+    }
+    
+    /**
+     * Take one token from the client's bucket.
+     * Returns 0 when the request may proceed, otherwise how many seconds to wait.
+     */
+    public long tryAcquire(EndpointClass endpointClass, String clientKey) {
+        TokenBucket bucket = buckets.computeIfAbsent(endpointClass + ":" + clientKey,
+                key -> newBucket(endpointClass));
+        
+        long waitNanos = bucket.tryAcquire(System.nanoTime());
+        if (waitNanos == 0) {
+            return 0;
+        }
+        
+        meterRegistry.counter("rate_limit.rejected", "endpoint", endpointClass.name(), "reason", "rate").increment();
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + TimeUnit.SECONDS.toNanos(1) - 1));
+    }
+    
+    /**
+     * Start a request for the user if they are below their concurrency cap
+     */
+    public boolean enter(String userId) {
+        AtomicInteger counter = inFlight.computeIfAbsent(userId, key -> new AtomicInteger());
+        if (counter.incrementAndGet() > maxConcurrentPerUser) {
+            counter.decrementAndGet();
+            meterRegistry.counter("rate_limit.rejected", "endpoint", "ANY", "reason", "concurrency").increment();
+            return false;
+        }
+        return true;
+    }
+    
+    /**
+     * Finish a request started with enter
+     */
+    public void exit(String userId) {
+        AtomicInteger counter = inFlight.get(userId);
+        if (counter != null) {
+            counter.decrementAndGet();
+        }
+    }
+    
+    /**
+     * Forget buckets that have refilled completely and users with nothing in flight
+     */
+    @Scheduled(fixedDelayString = "${rate-limit.cleanup-interval-ms:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        buckets.values().removeIf(bucket -> bucket.isFull(now));
+        inFlight.values().removeIf(counter -> counter.get() == 0);
+    }
+    
+    private TokenBucket newBucket(EndpointClass endpointClass) {
+        return switch (endpointClass) {
+            case AUTH -> new TokenBucket(authCapacity, authPerMinute);
+            case HEAVY -> new TokenBucket(heavyCapacity, heavyPerMinute);
+            case STANDARD -> new TokenBucket(standardCapacity, standardPerMinute);
+        };
+    }
+    
+    /**
+     * Token bucket kept in a single AtomicLong: the time at which the bucket would be full
+     * again (GCRA form). Taking a token pushes that time one refill interval further out.
+     */
+    static class TokenBucket {
+        
+        private final long intervalNanos; // Time to refill one token
+        private final long burstNanos;    // Time to refill a whole bucket
+        private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+        
+        TokenBucket(int capacity, int refillPerMinute) {
+            this.intervalNanos = TimeUnit.MINUTES.toNanos(1) / Math.max(1, refillPerMinute);
+            this.burstNanos = intervalNanos * Math.max(1, capacity);
+        }
+        
+        /**
+         * Returns 0 if a token was taken, otherwise the nanoseconds until one is available
+         */
+        long tryAcquire(long now) {
+            while (true) {
+                long current = fullAt.get();
+                long base = current == Long.MIN_VALUE || current - now < 0 ? now : current;
+                long next = base + intervalNanos;
+                long overdraft = next - now - burstNanos;
+                if (overdraft > 0) {
+                    return overdraft;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+        
+        boolean isFull(long now) {
+            long current = fullAt.get();
+            return current == Long.MIN_VALUE || current - now <= 0;
+        }
+    }
+}
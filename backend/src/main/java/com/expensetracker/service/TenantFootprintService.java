@@ -0,0 +1,83 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.Expense;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOperation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Which users dominate the expenses collection (document count and BSON bytes)
+ * and the request load (from TenantLoadTracker).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TenantFootprintService {
+    
+    private final MongoTemplate mongoTemplate;
+    private final TenantLoadTracker tenantLoadTracker;
+    
+    @Value("${tenants.storage-sample-size:10000}")
+    private int defaultSampleSize;
+    
+    /**
+     * Top-N users with storage estimated from the configured sample (tenants.storage-sample-size).
+     */
+    public Map<String, Object> getHotTenantReport(int limit) {
+        return getHotTenantReport(limit, defaultSampleSize);
+    }
+    
+    /**
+     * Top-N users by expense storage and by recent request rate.
+     * sampleSize > 0 estimates storage from a random sample, scaled to the collection size;
+     * 0 runs an exact $bsonSize group over every expense.
+     */
+    public Map<String, Object> getHotTenantReport(int limit, int sampleSize) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("storage", getTopUsersByStorage(limit, sampleSize));
+        report.put("storage_sampled", sampleSize > 0);
+        report.put("request_rates", tenantLoadTracker.getTopUsers(limit));
+        return report;
+    }
+    
+    private List<Map<String, Object>> getTopUsersByStorage(int limit, int sampleSize) {
+        List<AggregationOperation> stages = new ArrayList<>();
+        double scale = 1.0;
+        if (sampleSize > 0) {
+            long total = mongoTemplate.estimatedCount(Expense.class);
+            if (total > sampleSize) {
+                stages.add(Aggregation.sample(sampleSize));
+                scale = (double) total / sampleSize;
+            }
+        }
+        
+        stages.add(context -> new Document("$group", new Document("_id", "$user_id")
+                .append("count", new Document("$sum", 1))
+                .append("bytes", new Document("$sum", new Document("$bsonSize", "$$ROOT")))));
+        stages.add(context -> new Document("$sort", new Document("count", -1)));
+        stages.add(Aggregation.limit(limit));
+        
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Document group : mongoTemplate.aggregate(
+                Aggregation.newAggregation(stages).withOptions(AggregationOptions.builder().allowDiskUse(true).build()),
+                mongoTemplate.getCollectionName(Expense.class), Document.class).getMappedResults()) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("user_id", group.get("_id"));
+            row.put("expense_count", Math.round(((Number) group.get("count")).longValue() * scale));
+            row.put("bson_bytes", Math.round(((Number) group.get("bytes")).longValue() * scale));
+            rows.add(row);
+        }
+        return rows;
+    }
+}
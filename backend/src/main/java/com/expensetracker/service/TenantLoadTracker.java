@@ -0,0 +1,245 @@
+package com.expensetracker.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tracks which users send the most requests, in bounded memory.
+ * Each one-minute window (configurable) is counted with Space-Saving sketches, striped by key;
+ * rates are reported over the last complete window plus the current one.
+ */
+@Service
+@Slf4j
+public class TenantLoadTracker {
+    
+    private final int capacity;
+    private final long windowMillis;
+    
+    // Keys are spread over independent sketches by hash so concurrent requests rarely share a lock
+    private static final int STRIPES = 16;
+    
+    private volatile SpaceSaving[] current;
+    private volatile SpaceSaving[] previous;
+    private volatile long currentStartedAt;
+    private volatile long previousStartedAt;
+    
+    public TenantLoadTracker(@Value("${tenants.sketch-capacity:1000}") int capacity,
+                             @Value("${tenants.window-ms:60000}") long windowMillis) {
+        this.capacity = capacity;
+        this.windowMillis = windowMillis;
+        this.current = newWindow();
+        this.currentStartedAt = System.currentTimeMillis();
+    }
+    
+    /**
+     * Count one request for the user
+     */
+    public void record(String userId) {
+        current[(userId.hashCode() & Integer.MAX_VALUE) % STRIPES].add(userId);
+    }
+    
+    /**
+     * Start a new counting window, keeping the one that just ended for rate estimates
+     */
+    @Scheduled(fixedRateString = "${tenants.window-ms:60000}")
+    public void rotate() {
+        previous = current;
+        previousStartedAt = currentStartedAt;
+        current = newWindow();
+        currentStartedAt = System.currentTimeMillis();
+    }
+    
+    private SpaceSaving[] newWindow() {
+        SpaceSaving[] stripes = new SpaceSaving[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new SpaceSaving((capacity + STRIPES - 1) / STRIPES);
+        }
+        return stripes;
+    }
+    
+    /**
+     * Heaviest users by request rate; counts are upper bounds with the given maximum overestimate
+     */
+    public List<Map<String, Object>> getTopUsers(int limit) {
+        long now = System.currentTimeMillis();
+        SpaceSaving[] last = previous;
+        long startedAt = last != null ? previousStartedAt : currentStartedAt;
+        double minutes = Math.max(1, now - startedAt) / 60000.0;
+        
+        List<SpaceSaving> sketches = new ArrayList<>(List.of(current));
+        if (last != null) {
+            sketches.addAll(List.of(last));
+        }
+        
+        Map<String, long[]> merged = new HashMap<>();
+        for (SpaceSaving sketch : sketches) {
+            for (SpaceSaving.Counter counter : sketch.snapshot()) {
+                long[] totals = merged.computeIfAbsent(counter.key(), key -> new long[2]);
+                totals[0] += counter.count();
+                totals[1] += counter.error();
+            }
+        }
+        
+        return merged.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, long[]> e) -> e.getValue()[0]).reversed())
+                .limit(limit)
+                .map(entry -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("user_id", entry.getKey());
+                    row.put("requests", entry.getValue()[0]);
+                    row.put("max_overestimate", entry.getValue()[1]);
+                    row.put("requests_per_minute", Math.round(entry.getValue()[0] / minutes * 10) / 10.0);
+                    return row;
+                })
+                .toList();
+    }
+    
+    /**
+     * Space-Saving heavy-hitters sketch: at most capacity counters; a new key replaces the
+     * smallest counter and inherits its count, so every true heavy hitter is retained.
+     * Counters sit in buckets of equal count linked in ascending order (stream-summary),
+     * so both incrementing and evicting the minimum are O(1).
+     */
+    static class SpaceSaving {
+        
+        private final int capacity;
+        private final Map<String, Node> nodes;
+        private Bucket smallest; // Head of the bucket list
+        
+        SpaceSaving(int capacity) {
+            this.capacity = Math.max(1, capacity);
+            this.nodes = new HashMap<>(this.capacity * 2);
+        }
+        
+        synchronized void add(String key) {
+            Node node = nodes.get(key);
+            if (node != null) {
+                Bucket from = node.bucket;
+                moveTo(node, bucketAfter(from, from.count + 1));
+                unlinkIfEmpty(from);
+                return;
+            }
+            if (nodes.size() < capacity) {
+                node = new Node(key, 0);
+                nodes.put(key, node);
+                moveTo(node, bucketAfter(null, 1));
+                return;
+            }
+            
+            // Evict a smallest counter; the newcomer may have been counted under it
+            Bucket from = smallest;
+            Node victim = from.first;
+            detach(victim);
+            nodes.remove(victim.key);
+            
+            Node newcomer = new Node(key, from.count);
+            nodes.put(key, newcomer);
+            moveTo(newcomer, bucketAfter(from, from.count + 1));
+            unlinkIfEmpty(from);
+        }
+        
+        synchronized List<Counter> snapshot() {
+            List<Counter> result = new ArrayList<>(nodes.size());
+            nodes.values().forEach(node -> result.add(new Counter(node.key, node.bucket.count, node.error)));
+            return result;
+        }
+        
+        /**
+         * The bucket holding the given count directly after anchor (null: at the head), created if missing
+         */
+        private Bucket bucketAfter(Bucket anchor, long count) {
+            Bucket next = anchor != null ? anchor.next : smallest;
+            if (next != null && next.count == count) {
+                return next;
+            }
+            Bucket bucket = new Bucket(count);
+            bucket.prev = anchor;
+            bucket.next = next;
+            if (next != null) {
+                next.prev = bucket;
+            }
+            if (anchor != null) {
+                anchor.next = bucket;
+            } else {
+                smallest = bucket;
+            }
+            return bucket;
+        }
+        
+        private void unlinkIfEmpty(Bucket bucket) {
+            if (bucket.first != null) {
+                return;
+            }
+            if (bucket.prev != null) {
+                bucket.prev.next = bucket.next;
+            } else {
+                smallest = bucket.next;
+            }
+            if (bucket.next != null) {
+                bucket.next.prev = bucket.prev;
+            }
+        }
+        
+        private static void moveTo(Node node, Bucket bucket) {
+            if (node.bucket != null) {
+                detach(node);
+            }
+            node.bucket = bucket;
+            node.prev = null;
+            node.next = bucket.first;
+            if (bucket.first != null) {
+                bucket.first.prev = node;
+            }
+            bucket.first = node;
+        }
+        
+        private static void detach(Node node) {
+            if (node.prev != null) {
+                node.prev.next = node.next;
+            } else {
+                node.bucket.first = node.next;
+            }
+            if (node.next != null) {
+                node.next.prev = node.prev;
+            }
+            node.prev = null;
+            node.next = null;
+        }
+        
+        private static final class Bucket {
+            private final long count;
+            private Bucket prev;
+            private Bucket next;
+            private Node first;
+            
+            private Bucket(long count) {
+                this.count = count;
+            }
+        }
+        
+        private static final class Node {
+            private final String key;
+            private final long error;
+            private Bucket bucket;
+            private Node prev;
+            private Node next;
+            
+            private Node(String key, long error) {
+                this.key = key;
+                this.error = error;
+            }
+        }
+        
+        record Counter(String key, long count, long error) {
+        }
+    }
+}
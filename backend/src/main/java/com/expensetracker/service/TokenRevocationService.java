@@ -0,0 +1,224 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.RevokedToken;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Server-side token revocation.
+ * Revoked token IDs are stored in a TTL collection and mirrored in memory:
+ * a Bloom filter answers the common "not revoked" case, an exact map confirms hits.
+ * Each instance polls the collection to pick up revocations made elsewhere.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TokenRevocationService {
+    
+    private final MongoTemplate mongoTemplate;
+    
+    @Value("${jwt.revocation.full-reload-every:30}")
+    private int fullReloadEvery; // Rebuild from scratch every N refreshes to drop expired entries
+    
+    private static final long CLOCK_SKEW_SECONDS = 5;
+    private static final int MIN_FILTER_CAPACITY = 1024;
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    
+    // Revoked token ID -> token expiry (epoch millis)
+    private volatile Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter filter = new BloomFilter(MIN_FILTER_CAPACITY, FALSE_POSITIVE_RATE);
+    
+    private volatile LocalDateTime lastSync;
+    private int refreshCount;
+    
+    /**
+     * Ensure the TTL index exists and load current revocations
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        try {
+            mongoTemplate.indexOps(RevokedToken.class).ensureIndex(new Index()
+                    .on("expires_at", Sort.Direction.ASC)
+                    .expire(0, TimeUnit.SECONDS));
+            mongoTemplate.indexOps(RevokedToken.class).ensureIndex(new Index()
+                    .on("revoked_at", Sort.Direction.ASC));
+            reload();
+        } catch (Exception e) {
+            log.warn("Could not load revoked tokens: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Revoke a verified token until its expiry
+     */
+    public void revoke(JwtService.VerifiedToken token) {
+        LocalDateTime expiresAt = token.expiresAt() != null
+                ? LocalDateTime.ofInstant(token.expiresAt().toInstant(), ZoneId.systemDefault())
+                : LocalDateTime.now().plusDays(1);
+        
+        RevokedToken revokedToken = RevokedToken.builder()
+                .tokenId(token.tokenId())
+                .userId(token.userId())
+                .revokedAt(LocalDateTime.now())
+                .expiresAt(expiresAt)
+                .build();
+        mongoTemplate.save(revokedToken);
+        
+        remember(token.tokenId(), toEpochMillis(expiresAt));
+        log.info("Revoked token {} of user {}", token.tokenId(), token.userId());
+    }
+    
+    /**
+     * Check whether a token has been revoked, without touching the database
+     */
+    public boolean isRevoked(String tokenId) {
+        if (tokenId == null || !filter.mightContain(tokenId)) {
+            return false;
+        }
+        Long expiresAt = revoked.get(tokenId);
+        return expiresAt != null && expiresAt > System.currentTimeMillis();
+    }
+    
+    /**
+     * Pick up revocations made by other instances
+     */
+    @Scheduled(fixedDelayString = "${jwt.revocation.refresh-interval-ms:10000}",
+            initialDelayString = "${jwt.revocation.refresh-interval-ms:10000}")
+    public void refresh() {
+        try {
+            if (lastSync == null || ++refreshCount >= fullReloadEvery) {
+                reload();
+                return;
+            }
+            
+            LocalDateTime syncStart = LocalDateTime.now();
+            Query query = new Query(Criteria.where("revokedAt").gte(lastSync.minusSeconds(CLOCK_SKEW_SECONDS)));
+            for (RevokedToken token : mongoTemplate.find(query, RevokedToken.class)) {
+                remember(token.getTokenId(), toEpochMillis(token.getExpiresAt()));
+            }
+            lastSync = syncStart;
+        } catch (Exception e) {
+            log.warn("Failed to refresh revoked tokens: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Rebuild the in-memory view from the collection, sized for its current content
+     */
+    private synchronized void reload() {
+        LocalDateTime syncStart = LocalDateTime.now();
+        Query query = new Query(Criteria.where("expiresAt").gt(syncStart));
+        query.fields().include("tokenId", "expiresAt");
+        List<RevokedToken> tokens = mongoTemplate.find(query, RevokedToken.class);
+        
+        Map<String, Long> freshRevoked = new ConcurrentHashMap<>();
+        BloomFilter freshFilter = new BloomFilter(Math.max(MIN_FILTER_CAPACITY, tokens.size() * 2), FALSE_POSITIVE_RATE);
+        for (RevokedToken token : tokens) {
+            freshRevoked.put(token.getTokenId(), toEpochMillis(token.getExpiresAt()));
+            freshFilter.put(token.getTokenId());
+        }
+        
+        // Keep anything revoked locally while the query was running
+        revoked.forEach((tokenId, expiresAt) -> {
+            if (freshRevoked.putIfAbsent(tokenId, expiresAt) == null) {
+                freshFilter.put(tokenId);
+            }
+        });
+        
+        filter = freshFilter;
+        revoked = freshRevoked;
+        lastSync = syncStart;
+        refreshCount = 0;
+        log.debug("Loaded {} revoked tokens", tokens.size());
+    }
+    
+    private void remember(String tokenId, long expiresAt) {
+        // Exact entry first: a concurrent check that passes the filter must find it
+        revoked.put(tokenId, expiresAt);
+        filter.put(tokenId);
+    }
+    
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+    
+    /**
+     * Thread-safe Bloom filter over strings (double hashing on a 64-bit FNV-1a hash)
+     */
+    static class BloomFilter {
+        
+        private final AtomicLongArray bits;
+        private final int bitCount;
+        private final int hashCount;
+        
+        BloomFilter(int expectedInsertions, double falsePositiveRate) {
+            long optimalBits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.bitCount = (int) Math.max(64, Math.min(optimalBits, Integer.MAX_VALUE - 63));
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedInsertions * Math.log(2)));
+            this.bits = new AtomicLongArray((bitCount + 63) / 64);
+        }
+        
+        void put(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                long mask = 1L << (bit & 63);
+                int index = bit >>> 6;
+                long current;
+                do {
+                    current = bits.get(index);
+                    if ((current & mask) != 0) {
+                        break;
+                    }
+                } while (!bits.compareAndSet(index, current, current | mask));
+            }
+        }
+        
+        boolean mightContain(String value) {
+            long hash = hash(value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                int bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((bits.get(bit >>> 6) & (1L << (bit & 63))) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        private static long hash(String value) {
+            long hash = 0xcbf29ce484222325L;
+            for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+                hash ^= b;
+                hash *= 0x100000001b3L;
+            }
+            // Final avalanche so both 32-bit halves are well mixed
+            hash ^= hash >>> 33;
+            hash *= 0xff51afd7ed558ccdL;
+            hash ^= hash >>> 33;
+            return hash;
+        }
+    }
+}
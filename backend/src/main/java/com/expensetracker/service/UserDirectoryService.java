@@ -0,0 +1,111 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.UserSummaryDto;
+import com.expensetracker.model.User;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.Index;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Lists active users page by page (keyset on userId) or as a cursor-backed stream.
+ * Only summary fields are read from MongoDB, never the password hash.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserDirectoryService {
+    
+    private final MongoTemplate mongoTemplate;
+    
+    private static final int MAX_PAGE_SIZE = 200;
+    private static final int EXPORT_BATCH_SIZE = 500;
+    
+    /**
+     * Make sure the listing is served by the {is_active, user_id} index
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureIndexes() {
+        try {
+            mongoTemplate.indexOps(User.class).ensureIndex(new Index()
+                    .on("is_active", Sort.Direction.ASC)
+                    .on("user_id", Sort.Direction.ASC)
+                    .named("is_active_user_id"));
+        } catch (Exception e) {
+            log.warn("Could not ensure user directory index: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Get the page of active users that follows the cursor (the last userId of the previous page)
+     */
+    public UserSummaryDto.Page getActiveUsers(String cursor, int limit) {
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        
+        Query query = activeUsersQuery();
+        if (cursor != null && !cursor.isBlank()) {
+            query.addCriteria(Criteria.where("userId").gt(cursor));
+        }
+        query.limit(pageSize + 1);
+        
+        List<UserSummaryDto> users = mongoTemplate.find(query, User.class).stream()
+                .map(this::toSummary)
+                .toList();
+        
+        boolean hasMore = users.size() > pageSize;
+        List<UserSummaryDto> page = hasMore ? users.subList(0, pageSize) : users;
+        
+        return UserSummaryDto.Page.builder()
+                .users(page)
+                .nextCursor(hasMore ? page.get(page.size() - 1).getUserId() : null)
+                .hasMore(hasMore)
+                .build();
+    }
+    
+    /**
+     * Feed every active user to the consumer from a single server-side cursor
+     */
+    public long streamActiveUsers(Consumer<UserSummaryDto> consumer) {
+        Query query = activeUsersQuery();
+        query.cursorBatchSize(EXPORT_BATCH_SIZE);
+        
+        long count = 0;
+        try (Stream<User> users = mongoTemplate.stream(query, User.class)) {
+            for (User user : (Iterable<User>) users::iterator) {
+                consumer.accept(toSummary(user));
+                count++;
+            }
+        }
+        log.info("Exported {} active users", count);
+        return count;
+    }
+    
+    private Query activeUsersQuery() {
+        Query query = new Query(Criteria.where("isActive").is(true));
+        query.fields().include("userId", "name", "email", "role", "isActive", "createdAt", "lastLogin");
+        query.with(Sort.by(Sort.Direction.ASC, "userId"));
+        return query;
+    }
+    
+    private UserSummaryDto toSummary(User user) {
+        return UserSummaryDto.builder()
+                .userId(user.getUserId())
+                .name(user.getName())
+                .email(user.getEmail())
+                .role(user.getRole())
+                .isActive(user.getIsActive())
+                .createdAt(user.getCreatedAt())
+                .lastLogin(user.getLastLogin())
+                .build();
+    }
+}
@@ -0,0 +1,102 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.User;
+import com.expensetracker.model.UserIdCounter;
+import com.expensetracker.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+/**
+ * Hands out unique userIds derived from an email address.
+ * Each prefix has an atomic counter document, so allocation costs the same
+ * number of round trips however many users share the prefix.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserIdAllocator {
+    
+    private final MongoTemplate mongoTemplate;
+    private final UserRepository userRepository;
+    
+    private static final int MAX_ATTEMPTS = 5;
+    
+    /**
+     * Allocate a userId for the email: the local part, or the local part with the next free number
+     */
+    public String allocate(String email) {
+        String prefix = User.generateUserIdFromEmail(email);
+        
+        for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+            String userId = toUserId(prefix, nextSeq(prefix));
+            
+            // Only collides when another prefix produced the same id (e.g. "john" + 1 and "john1")
+            if (!userRepository.existsByUserId(userId)) {
+                return userId;
+            }
+            log.debug("Allocated userId {} is already taken, trying the next one", userId);
+        }
+        
+        throw new RuntimeException("Could not allocate a unique user ID for prefix: " + prefix);
+    }
+    
+    /**
+     * Increment the prefix counter, seeding it from existing users the first time the prefix is seen
+     */
+    private long nextSeq(String prefix) {
+        Query byPrefix = new Query(Criteria.where("prefix").is(prefix));
+        Update increment = new Update().inc("seq", 1);
+        
+        UserIdCounter counter = mongoTemplate.findAndModify(byPrefix, increment,
+                FindAndModifyOptions.options().returnNew(true), UserIdCounter.class);
+        if (counter != null) {
+            return counter.getSeq();
+        }
+        
+        // $max makes concurrent seeding converge on the same value
+        try {
+            mongoTemplate.upsert(byPrefix, new Update().max("seq", highestExistingSeq(prefix)), UserIdCounter.class);
+        } catch (DuplicateKeyException e) {
+            log.debug("Counter for prefix {} was created concurrently", prefix);
+        }
+        
+        counter = mongoTemplate.findAndModify(byPrefix, increment,
+                FindAndModifyOptions.options().returnNew(true), UserIdCounter.class);
+        return counter.getSeq();
+    }
+    
+    /**
+     * Highest suffix already used for the prefix (-1 when none), from one anchored prefix query
+     */
+    private long highestExistingSeq(String prefix) {
+        Query query = new Query(Criteria.where("userId").regex("^" + escapeRegex(prefix) + "\\d*$"));
+        query.fields().include("userId").exclude("_id");
+        
+        long highest = -1;
+        for (Document user : mongoTemplate.query(User.class).as(Document.class).matching(query).all()) {
+            String suffix = user.getString("user_id").substring(prefix.length());
+            try {
+                highest = Math.max(highest, suffix.isEmpty() ? 0 : Long.parseLong(suffix));
+            } catch (NumberFormatException e) {
+                // Suffix too long to be one of ours
+            }
+        }
+        return highest;
+    }
+    
+    private static String toUserId(String prefix, long seq) {
+        return seq == 0 ? prefix : prefix + seq;
+    }
+    
+    private static String escapeRegex(String value) {
+        return value.replaceAll("[\\\\^$.|?*+()\\[\\]{}]", "\\\\$0");
+    }
+}
@@ -0,0 +1,94 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.BackgroundJob;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.User;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Removes a deleted user's data in the background.
+ * Expenses and categories are removed in bounded, throttled batches so
+ * large accounts do not starve foreground traffic; the user document goes last.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserPurgeService {
+    
+    private final MongoTemplate mongoTemplate;
+    private final BackgroundJobService backgroundJobService;
+    private final UserStatsService userStatsService;
+    
+    private static final String PHASE_EXPENSES = "PURGE_EXPENSES";
+    private static final String PHASE_CATEGORIES = "PURGE_CATEGORIES";
+    private static final String PHASE_USER = "PURGE_USER";
+    
+    @PostConstruct
+    void registerJobHandlers() {
+        backgroundJobService.registerHandler(BackgroundJob.JobType.USER_PURGE, this::runPurge);
+    }
+    
+    /**
+     * Start removing every expense, category and counter of the user, then the user itself
+     */
+    public BackgroundJob startPurge(String userId) {
+        log.info("Starting data purge for user: {}", userId);
+        
+        BackgroundJob job = BackgroundJob.builder()
+                .type(BackgroundJob.JobType.USER_PURGE)
+                .userId(userId)
+                .targetId(userId)
+                .build();
+        
+        return backgroundJobService.submit(job);
+    }
+    
+    private void runPurge(BackgroundJob job) {
+        String userId = job.getTargetId();
+        Criteria ownedByUser = Criteria.where("userId").is(userId);
+        
+        if (job.getPhase() == null) {
+            job.setTotal(mongoTemplate.count(new Query(ownedByUser), Expense.class)
+                    + mongoTemplate.count(new Query(ownedByUser), Category.class));
+            backgroundJobService.startPhase(job, PHASE_EXPENSES);
+        }
+        
+        if (PHASE_EXPENSES.equals(job.getPhase())) {
+            backgroundJobService.processInBatches(job, ownedByUser, Expense.class,
+                    ids -> removeBatch(ids, userId, Expense.class));
+            backgroundJobService.startPhase(job, PHASE_CATEGORIES);
+        }
+        
+        if (PHASE_CATEGORIES.equals(job.getPhase())) {
+            backgroundJobService.processInBatches(job, ownedByUser, Category.class,
+                    ids -> removeBatch(ids, userId, Category.class));
+            backgroundJobService.startPhase(job, PHASE_USER);
+        }
+        
+        mongoTemplate.remove(new Query(ownedByUser), User.class);
+        userStatsService.deleteStats(userId);
+        
+        // Writes that raced with the batches above (e.g. a request authenticated before the delete)
+        long stragglers = mongoTemplate.remove(new Query(ownedByUser), Expense.class).getDeletedCount()
+                + mongoTemplate.remove(new Query(ownedByUser), Category.class).getDeletedCount();
+        if (stragglers > 0) {
+            backgroundJobService.checkpoint(job, null, stragglers);
+        }
+        
+        job.setMessage("Removed " + job.getProcessed() + " expenses and categories of user " + userId);
+    }
+    
+    private long removeBatch(List<Object> ids, String userId, Class<?> entityClass) {
+        Query batch = new Query(Criteria.where("_id").in(ids).and("userId").is(userId));
+        return mongoTemplate.remove(batch, entityClass).getDeletedCount();
+    }
+}
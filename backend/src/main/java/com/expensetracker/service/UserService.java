@@ -1,13 +1,19 @@
 package com.expensetracker.service;
 
+import com.expensetracker.model.BackgroundJob;
 import com.expensetracker.model.User;
+import com.expensetracker.model.UserExpenseStats;
 import com.expensetracker.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 /**
@@ -20,6 +26,12 @@ public class UserService {
     
     private final UserRepository userRepository;
     private final CategoryService categoryService;
+    private final UserStatsService userStatsService;
+    private final UserPurgeService userPurgeService;
+    private final BackgroundJobService backgroundJobService;
+    private final MongoTemplate mongoTemplate;
+    private final UserIdAllocator userIdAllocator;
+    private final UserStatusCache userStatusCache;
     
     /**
      * Create a new user with default categories
@@ -33,13 +45,8 @@ public class UserService {
             throw new RuntimeException("User with email " + email + " already exists");
         }
         
-        // Generate userId from email
-        String userId = User.generateUserIdFromEmail(email);
-        
-        // Check if userId is already taken
-        if (userRepository.existsByUserId(userId)) {
-            userId = userId + "_" + System.currentTimeMillis();
-        }
+        // Generate unique userId from email
+        String userId = userIdAllocator.allocate(email);
         
         // Create and save user
         User user = User.builder()
@@ -53,7 +60,7 @@ public class UserService {
         
         // Create default categories for the user
         try {
-            categoryService.createDefaultCategories(userId);
+            categoryService.initializeCategoriesForNewUser(userId);
             log.info("Default categories created for user: {}", userId);
         } catch (Exception e) {
             log.error("Failed to create default categories for user: {}", userId, e);
@@ -104,32 +111,45 @@ public class UserService {
         user.updateTimestamp();
         
         User updatedUser = userRepository.save(user);
+        userStatusCache.invalidate(userId);
         log.info("User updated successfully: {}", userId);
         
         return updatedUser;
     }
     
     /**
-     * Delete user and all associated data
+     * Delete user and all associated data.
+     * The account is disabled right away; expenses, categories and the user
+     * document are removed by a background purge job.
      */
-    @Transactional
-    public void deleteUser(String userId) {
+    public BackgroundJob deleteUser(String userId) {
         log.info("Deleting user: {}", userId);
         
         // Verify user exists before deletion
-        getUserByUserId(userId);
+        User user = getUserByUserId(userId);
         
-        // Delete all associated categories and expenses
-        try {
-            categoryService.deleteAllUserCategories(userId);
-            log.info("Deleted all categories for user: {}", userId);
-        } catch (Exception e) {
-            log.error("Error deleting categories for user: {}", userId, e);
+        // A repeated delete reports the purge that is already running
+        if (user.isDeleting()) {
+            Optional<BackgroundJob> runningPurge = backgroundJobService.getJobsForTarget(userId).stream()
+                    .filter(job -> job.getType() == BackgroundJob.JobType.USER_PURGE && !job.isFinished())
+                    .findFirst();
+            if (runningPurge.isPresent()) {
+                return runningPurge.get();
+            }
         }
         
-        // Delete user
-        userRepository.deleteByUserId(userId);
-        log.info("User deleted successfully: {}", userId);
+        // Targeted update so the flag cannot be lost to a concurrent full save of the user
+        mongoTemplate.updateFirst(new Query(Criteria.where("userId").is(userId)),
+                new Update()
+                        .set("isActive", false)
+                        .set("deletionRequestedAt", LocalDateTime.now())
+                        .set("updatedAt", LocalDateTime.now()),
+                User.class);
+        userStatusCache.invalidate(userId);
+        
+        BackgroundJob job = userPurgeService.startPurge(userId);
+        log.info("User {} marked for deletion, purge job: {}", userId, job.getJobId());
+        return job;
     }
     
     /**
@@ -144,6 +164,7 @@ public class UserService {
         user.updateTimestamp();
         
         User deactivatedUser = userRepository.save(user);
+        userStatusCache.invalidate(userId);
         log.info("User deactivated successfully: {}", userId);
         
         return deactivatedUser;
@@ -161,18 +182,12 @@ public class UserService {
         user.updateTimestamp();
         
         User reactivatedUser = userRepository.save(user);
+        userStatusCache.invalidate(userId);
         log.info("User reactivated successfully: {}", userId);
         
         return reactivatedUser;
     }
     
-    /**
-     * Get all active users
-     */
-    public List<User> getAllActiveUsers() {
-        return userRepository.findAllActiveUsers();
-    }
-    
     /**
      * Check if user exists
      */
@@ -186,9 +201,11 @@ public class UserService {
     public UserStats getUserStats(String userId) {
         User user = getUserByUserId(userId);
         
-        // Get category count and expense count (will be implemented with ExpenseService)
         long categoryCount = categoryService.getCategoryCountForUser(userId);
         
+        // Expense totals come from the materialized counters instead of scanning expenses
+        UserExpenseStats expenseStats = userStatsService.getStats(userId);
+        
         return UserStats.builder()
                 .userId(userId)
                 .name(user.getName())
@@ -196,6 +213,10 @@ public class UserService {
                 .isActive(user.getIsActive())
                 .createdAt(user.getCreatedAt())
                 .categoryCount(categoryCount)
+                .expenseCount(expenseStats.getExpenseCount())
+                .totalExpenses(expenseStats.getTotalAmount())
+                .firstExpenseDate(expenseStats.getFirstExpenseDate())
+                .lastExpenseDate(expenseStats.getLastExpenseDate())
                 .build();
     }
     
@@ -212,5 +233,7 @@ public class UserService {
         private Long categoryCount;
         private Long expenseCount;
         private java.math.BigDecimal totalExpenses;
+        private java.time.LocalDate firstExpenseDate;
+        private java.time.LocalDate lastExpenseDate;
     }
 }
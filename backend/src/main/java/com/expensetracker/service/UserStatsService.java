@@ -0,0 +1,272 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.BackgroundJob;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.UserExpenseStats;
+import com.expensetracker.repository.ExpenseRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.bson.Document;
+import org.bson.types.Decimal128;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationOptions;
+import org.springframework.data.mongodb.core.aggregation.ConvertOperators;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Objects;
+import java.util.stream.Stream;
+
+/**
+ * Maintains per-user lifetime expense counters (count, total, first and last expense date)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserStatsService {
+    
+    private final MongoTemplate mongoTemplate;
+    private final ExpenseRepository expenseRepository;
+    private final BackgroundJobService backgroundJobService;
+    
+    @Value("${jobs.batch-size:500}")
+    private int batchSize;
+    
+    @PostConstruct
+    void registerJobHandlers() {
+        backgroundJobService.registerHandler(BackgroundJob.JobType.USER_STATS_RECONCILE, this::runReconciliation);
+    }
+    
+    /**
+     * Backfill counters once for a database that has expenses but no user_stats yet
+     * (e.g. the first start after counters were introduced)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileIfMissing() {
+        try {
+            if (mongoTemplate.estimatedCount(UserExpenseStats.class) > 0
+                    || !mongoTemplate.exists(new Query(), Expense.class)
+                    || backgroundJobService.hasActiveJob(BackgroundJob.JobType.USER_STATS_RECONCILE)) {
+                return;
+            }
+            log.info("No user stats yet, backfilling them from existing expenses");
+            startReconciliation();
+        } catch (Exception e) {
+            log.warn("Could not check whether user stats need a backfill: {}", e.getMessage());
+        }
+    }
+    
+    /**
+     * Get counters for a user (all zero if the user has no expenses yet)
+     */
+    public UserExpenseStats getStats(String userId) {
+        UserExpenseStats stats = mongoTemplate.findById(userId, UserExpenseStats.class);
+        return stats != null ? stats : UserExpenseStats.empty(userId);
+    }
+    
+    /**
+     * Account for a newly created expense
+     */
+    public void recordExpenseAdded(Expense expense) {
+        Update update = new Update()
+                .inc("expenseCount", 1)
+                .inc("totalAmount", toDecimal128(expense.getAmount()))
+                .min("firstExpenseDate", expense.getDate())
+                .max("lastExpenseDate", expense.getDate())
+                .set("updatedAt", LocalDateTime.now());
+        
+        mongoTemplate.upsert(byUserId(expense.getUserId()), update, UserExpenseStats.class);
+    }
+    
+    /**
+     * Account for an edited expense, given its amount and date before the edit
+     */
+    public void recordExpenseUpdated(BigDecimal previousAmount, LocalDate previousDate, Expense expense) {
+        Update update = new Update()
+                .inc("totalAmount", toDecimal128(expense.getAmount().subtract(previousAmount)))
+                .min("firstExpenseDate", expense.getDate())
+                .max("lastExpenseDate", expense.getDate())
+                .set("updatedAt", LocalDateTime.now());
+        
+        UserExpenseStats stats = mongoTemplate.findAndModify(byUserId(expense.getUserId()), update,
+                FindAndModifyOptions.options().upsert(true).returnNew(true), UserExpenseStats.class);
+        
+        if (!previousDate.equals(expense.getDate()) && isDateBound(stats, previousDate)) {
+            refreshDateBounds(expense.getUserId());
+        }
+    }
+    
+    /**
+     * Account for a deleted expense
+     */
+    public void recordExpenseRemoved(Expense expense) {
+        Update update = new Update()
+                .inc("expenseCount", -1)
+                .inc("totalAmount", toDecimal128(expense.getAmount().negate()))
+                .set("updatedAt", LocalDateTime.now());
+        
+        UserExpenseStats stats = mongoTemplate.findAndModify(byUserId(expense.getUserId()), update,
+                FindAndModifyOptions.options().returnNew(true), UserExpenseStats.class);
+        
+        if (isDateBound(stats, expense.getDate())) {
+            refreshDateBounds(expense.getUserId());
+        }
+    }
+    
+    /**
+     * Account for expenses of one user removed in bulk (repairs); date bounds are re-read afterwards
+     */
+    public void recordExpensesRemoved(String userId, long count, BigDecimal totalAmount) {
+        if (count == 0) {
+            return;
+        }
+        Update update = new Update()
+                .inc("expenseCount", -count)
+                .inc("totalAmount", toDecimal128(totalAmount.negate()))
+                .set("updatedAt", LocalDateTime.now());
+        
+        mongoTemplate.updateFirst(byUserId(userId), update, UserExpenseStats.class);
+        refreshDateBounds(userId);
+    }
+    
+    /**
+     * Drop the counters of a user whose data has been purged
+     */
+    public void deleteStats(String userId) {
+        mongoTemplate.remove(byUserId(userId), UserExpenseStats.class);
+    }
+    
+    /**
+     * Start a job that recomputes every user's counters from the expenses collection
+     */
+    public BackgroundJob startReconciliation() {
+        log.info("Starting user stats reconciliation");
+        
+        BackgroundJob job = BackgroundJob.builder()
+                .type(BackgroundJob.JobType.USER_STATS_RECONCILE)
+                .build();
+        
+        return backgroundJobService.submit(job);
+    }
+    
+    private void runReconciliation(BackgroundJob job) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        
+        TypedAggregation<Expense> aggregation = Aggregation.newAggregation(Expense.class,
+                Aggregation.group("userId")
+                        .count().as("count")
+                        .sum(ConvertOperators.ToDecimal.toDecimal("$amount")).as("total")
+                        .min("date").as("first")
+                        .max("date").as("last")
+        ).withOptions(AggregationOptions.builder().allowDiskUse(true).build());
+        
+        BulkOperations bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserExpenseStats.class);
+        int pending = 0;
+        
+        try (Stream<Document> stream = mongoTemplate.aggregateStream(aggregation, Document.class)) {
+            Iterator<Document> groups = stream.iterator();
+            while (groups.hasNext()) {
+                Document group = groups.next();
+                String userId = group.getString("_id");
+                if (userId == null) {
+                    continue;
+                }
+                
+                Update update = new Update()
+                        .set("expenseCount", ((Number) group.get("count")).longValue())
+                        .set("totalAmount", group.get("total"))
+                        .set("firstExpenseDate", toLocalDate(group.getDate("first")))
+                        .set("lastExpenseDate", toLocalDate(group.getDate("last")))
+                        .set("updatedAt", LocalDateTime.now())
+                        .set("reconciledAt", LocalDateTime.now());
+                bulk.upsert(byUserId(userId), update);
+                
+                if (++pending == batchSize) {
+                    bulk.execute();
+                    backgroundJobService.checkpoint(job, userId, pending);
+                    bulk = mongoTemplate.bulkOps(BulkOperations.BulkMode.UNORDERED, UserExpenseStats.class);
+                    pending = 0;
+                }
+            }
+        }
+        
+        if (pending > 0) {
+            bulk.execute();
+            backgroundJobService.checkpoint(job, null, pending);
+        }
+        
+        // Users whose expenses are all gone were not in the aggregation: reset their counters.
+        // Counters written since the job started (e.g. a user's first expense) are live, not stale.
+        Query untouched = new Query(new Criteria().andOperator(
+                new Criteria().orOperator(
+                        Criteria.where("reconciledAt").lt(startedAt),
+                        Criteria.where("reconciledAt").exists(false)),
+                new Criteria().orOperator(
+                        Criteria.where("updatedAt").lt(startedAt),
+                        Criteria.where("updatedAt").exists(false))));
+        long reset = mongoTemplate.updateMulti(untouched, new Update()
+                .set("expenseCount", 0L)
+                .set("totalAmount", Decimal128.POSITIVE_ZERO)
+                .unset("firstExpenseDate")
+                .unset("lastExpenseDate")
+                .set("reconciledAt", LocalDateTime.now()), UserExpenseStats.class).getModifiedCount();
+        
+        job.setMessage("Reconciled counters for " + job.getProcessed() + " users, reset " + reset);
+    }
+    
+    /**
+     * Recompute first/last expense dates with two indexed point reads
+     */
+    private void refreshDateBounds(String userId) {
+        LocalDate first = expenseRepository.findFirstByUserIdOrderByDateAsc(userId)
+                .map(Expense::getDate)
+                .orElse(null);
+        LocalDate last = expenseRepository.findFirstByUserIdOrderByDateDesc(userId)
+                .map(Expense::getDate)
+                .orElse(null);
+        
+        Update update = new Update();
+        if (first != null) {
+            update.set("firstExpenseDate", first).set("lastExpenseDate", last);
+        } else {
+            update.unset("firstExpenseDate").unset("lastExpenseDate");
+        }
+        mongoTemplate.updateFirst(byUserId(userId), update, UserExpenseStats.class);
+    }
+    
+    private static boolean isDateBound(UserExpenseStats stats, LocalDate date) {
+        return stats != null && (Objects.equals(stats.getFirstExpenseDate(), date)
+                || Objects.equals(stats.getLastExpenseDate(), date));
+    }
+    
+    private static Query byUserId(String userId) {
+        return new Query(Criteria.where("userId").is(userId));
+    }
+    
+    private static Decimal128 toDecimal128(BigDecimal amount) {
+        return new Decimal128(amount);
+    }
+    
+    /**
+     * Spring Data writes a LocalDate as midnight in the JVM's default zone, so it is read back in that zone
+     */
+    static LocalDate toLocalDate(Date date) {
+        return date != null ? date.toInstant().atZone(ZoneId.systemDefault()).toLocalDate() : null;
+    }
+}
@@ -0,0 +1,88 @@
+package com.expensetracker.service;
+
+import com.expensetracker.dto.AuthResponseDto;
+import com.expensetracker.model.User;
+import com.expensetracker.repository.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Short-lived, size-bounded cache of user status and profile info for token validation.
+ * Entries are dropped by UserService and AuthService whenever the user changes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class UserStatusCache {
+    
+    private final UserRepository userRepository;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${auth.user-cache.ttl-seconds:30}")
+    private long ttlSeconds;
+    
+    @Value("${auth.user-cache.max-size:10000}")
+    private int maxSize;
+    
+    private final Map<String, CachedUser> entries = new ConcurrentHashMap<>();
+    
+    /**
+     * Status and info of a user, loaded from the database on a miss
+     */
+    public Optional<CachedUser> get(String userId, Function<User, AuthResponseDto.UserInfo> toUserInfo) {
+        long now = System.currentTimeMillis();
+        
+        CachedUser cached = entries.get(userId);
+        if (cached != null && cached.validUntil() > now) {
+            meterRegistry.counter("auth.user.cache", "result", "hit").increment();
+            return Optional.of(cached);
+        }
+        
+        meterRegistry.counter("auth.user.cache", "result", "miss").increment();
+        Optional<CachedUser> loaded = userRepository.findByUserId(userId)
+                .map(user -> new CachedUser(toUserInfo.apply(user), user.isAccountValid(), now + ttlSeconds * 1000));
+        
+        if (loaded.isPresent()) {
+            if (entries.size() >= maxSize) {
+                evictExpired();
+            }
+            if (entries.size() < maxSize) {
+                entries.put(userId, loaded.get());
+            }
+        } else {
+            entries.remove(userId);
+        }
+        return loaded;
+    }
+    
+    /**
+     * Drop a user's entry after their profile, status or password changed
+     */
+    public void invalidate(String userId) {
+        entries.remove(userId);
+    }
+    
+    /**
+     * Drop expired entries
+     */
+    @Scheduled(fixedDelayString = "${auth.user-cache.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        entries.values().removeIf(entry -> entry.validUntil() <= now);
+    }
+    
+    /**
+     * Cached view of a user: what /auth/me returns and whether the account may authenticate
+     */
+    public record CachedUser(AuthResponseDto.UserInfo userInfo, boolean accountValid, long validUntil) {
+    }
+}
@@ -0,0 +1,138 @@
+package com.expensetracker.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded cache of verified tokens, keyed by the SHA-256 digest of the token.
+ * A hit skips signature verification; entries never outlive the token's exp.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class VerifiedTokenCache {
+    
+    private final JwtService jwtService;
+    private final MeterRegistry meterRegistry;
+    
+    @Value("${jwt.cache.max-size:10000}")
+    private int maxSize;
+    
+    @Value("${jwt.cache.max-ttl-seconds:600}")
+    private long maxTtlSeconds;
+    
+    @Value("${jwt.cache.min-sweep-interval-ms:1000}")
+    private long minSweepIntervalMs;
+    
+    @Value("${jwt.cache.eviction-sample-size:8}")
+    private int evictionSampleSize;
+    
+    private final Map<String, CachedToken> entries = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweep = new AtomicLong();
+    
+    private Counter hits;
+    private Counter misses;
+    private Timer verificationTimer;
+    
+    @PostConstruct
+    void registerMetrics() {
+        hits = meterRegistry.counter("auth.token.cache", "result", "hit");
+        misses = meterRegistry.counter("auth.token.cache", "result", "miss");
+        verificationTimer = meterRegistry.timer("auth.token.verify");
+        Gauge.builder("auth.token.cache.size", entries, Map::size)
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Return the token's principal, verifying the signature only when it is not cached
+     */
+    public Optional<JwtService.VerifiedToken> verify(String token) {
+        String key = JwtService.digest(token);
+        long now = System.currentTimeMillis();
+        
+        CachedToken cached = entries.get(key);
+        if (cached != null) {
+            if (cached.validUntil() > now) {
+                hits.increment();
+                return Optional.of(cached.token());
+            }
+            entries.remove(key, cached);
+        }
+        
+        misses.increment();
+        Optional<JwtService.VerifiedToken> verified = verificationTimer.record(() -> jwtService.verifyToken(token));
+        verified.ifPresent(principal -> put(key, principal, now));
+        return verified;
+    }
+    
+    /**
+     * Forget a token (e.g. after it has been revoked)
+     */
+    public void invalidate(String token) {
+        entries.remove(JwtService.digest(token));
+    }
+    
+    /**
+     * Drop expired entries
+     */
+    @Scheduled(fixedDelayString = "${jwt.cache.cleanup-interval-ms:60000}")
+    public void evictExpired() {
+        long now = System.currentTimeMillis();
+        lastSweep.set(now);
+        entries.values().removeIf(entry -> entry.validUntil() <= now);
+    }
+    
+    private void put(String key, JwtService.VerifiedToken token, long now) {
+        long validUntil = now + maxTtlSeconds * 1000;
+        if (token.expiresAt() != null) {
+            validUntil = Math.min(validUntil, token.expiresAt().getTime());
+        }
+        
+        if (entries.size() >= maxSize) {
+            // A full sweep is O(n): run at most one per interval, whoever wins the race does it
+            long last = lastSweep.get();
+            if (now - last >= minSweepIntervalMs && lastSweep.compareAndSet(last, now)) {
+                entries.values().removeIf(entry -> entry.validUntil() <= now);
+            }
+            if (entries.size() >= maxSize) {
+                evictOne();
+            }
+        }
+        entries.put(key, new CachedToken(token, validUntil));
+    }
+    
+    /**
+     * Evict the soonest-expiring of a few entries. Keys are SHA-256 digests, so the
+     * map's iteration order is effectively a random sample.
+     */
+    private void evictOne() {
+        Map.Entry<String, CachedToken> victim = null;
+        Iterator<Map.Entry<String, CachedToken>> it = entries.entrySet().iterator();
+        for (int i = 0; i < evictionSampleSize && it.hasNext(); i++) {
+            Map.Entry<String, CachedToken> candidate = it.next();
+            if (victim == null || candidate.getValue().validUntil() < victim.getValue().validUntil()) {
+                victim = candidate;
+            }
+        }
+        if (victim != null) {
+            entries.remove(victim.getKey(), victim.getValue());
+        }
+    }
+    
+    private record CachedToken(JwtService.VerifiedToken token, long validUntil) {
+    }
+}
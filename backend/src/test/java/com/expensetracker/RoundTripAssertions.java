@@ -0,0 +1,57 @@
+package com.expensetracker;
+
+import com.expensetracker.config.MongoRoundTrips;
+
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Test helper for asserting how many Mongo round trips a piece of code makes.
+ * Works for direct service calls and for MockMvc requests, which run on the test thread.
+ */
+public class RoundTripAssertions {
+    
+    @FunctionalInterface
+    public interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+    
+    /**
+     * Run the action and return the round trips it made
+     */
+    public static MongoRoundTrips.Tally countRoundTrips(ThrowingRunnable action) throws Exception {
+        try (MongoRoundTrips.Tally tally = MongoRoundTrips.begin()) {
+            action.run();
+            return tally;
+        }
+    }
+    
+    /**
+     * Run the action and fail if it made more than the given number of round trips
+     */
+    public static <T> T assertMaxRoundTrips(int maxRoundTrips, Callable<T> action) throws Exception {
+        T result;
+        MongoRoundTrips.Tally tally = MongoRoundTrips.begin();
+        try {
+            result = action.call();
+        } finally {
+            tally.close();
+        }
+        assertTrue(tally.getCommands() <= maxRoundTrips,
+                () -> "Expected at most " + maxRoundTrips + " Mongo round trips but was " + tally
+                        + tally.mostRepeatedShape().map(shape -> ", most repeated: " + shape.getKey() + " x" + shape.getValue()).orElse(""));
+        return result;
+    }
+    
+    /**
+     * Fail if the action issues the same command shape the given number of times or more (N+1)
+     */
+    public static void assertNoRepeatedQueries(int threshold, ThrowingRunnable action) throws Exception {
+        MongoRoundTrips.Tally tally = countRoundTrips(action);
+        tally.mostRepeatedShape()
+                .filter(shape -> shape.getValue() >= threshold)
+                .ifPresent(shape -> fail("Command repeated " + shape.getValue() + " times: " + shape.getKey()));
+    }
+}
@@ -0,0 +1,52 @@
+package com.expensetracker.config;
+
+import org.bson.BsonDocument;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Unit tests for command parsing in the Mongo command profiler
+ */
+public class MongoCommandProfilerTest {
+    
+    @Test
+    public void testShapeOf_RedactsFilterValues() {
+        BsonDocument find = BsonDocument.parse(
+                "{find: 'expenses', filter: {user_id: 'USR-1', amount: {$gt: 50}, category: {$in: ['Food', 'Travel']}}}");
+        
+        String shape = MongoCommandProfiler.shapeOf(find);
+        
+        assertEquals(BsonDocument.parse("{user_id: '?', amount: {$gt: '?'}, category: {$in: '?'}}").toString(), shape);
+        assertFalse(shape.contains("USR-1"));
+    }
+    
+    @Test
+    public void testShapeOf_KeepsPipelineAndWriteStructure() {
+        BsonDocument aggregate = BsonDocument.parse(
+                "{aggregate: 'expenses', pipeline: [{$match: {user_id: 'USR-1'}}, {$group: {_id: '$category'}}]}");
+        BsonDocument update = BsonDocument.parse(
+                "{update: 'users', updates: [{q: {user_id: 'USR-1'}, u: {$set: {is_active: false}}}]}");
+        
+        assertEquals(BsonDocument.parse("{p: [{$match: {user_id: '?'}}, {$group: {_id: '?'}}]}").get("p").toString(),
+                MongoCommandProfiler.shapeOf(aggregate));
+        assertEquals(BsonDocument.parse("{user_id: '?'}").toString(), MongoCommandProfiler.shapeOf(update));
+    }
+    
+    @Test
+    public void testCollectionOf_ReadsCommandTarget() {
+        assertEquals("expenses", MongoCommandProfiler.collectionOf("find", BsonDocument.parse("{find: 'expenses'}")));
+        assertEquals("expenses", MongoCommandProfiler.collectionOf("getMore",
+                BsonDocument.parse("{getMore: {$numberLong: '42'}, collection: 'expenses'}")));
+        assertEquals("none", MongoCommandProfiler.collectionOf("aggregate", BsonDocument.parse("{aggregate: 1}")));
+    }
+    
+    @Test
+    public void testReturnedDocuments_CountsBatchOrAffected() {
+        assertEquals(2, MongoCommandProfiler.returnedDocuments(
+                BsonDocument.parse("{cursor: {firstBatch: [{a: 1}, {a: 2}], id: 0}, ok: 1}")));
+        assertEquals(3, MongoCommandProfiler.returnedDocuments(BsonDocument.parse("{n: 3, ok: 1}")));
+        assertEquals(0, MongoCommandProfiler.returnedDocuments(BsonDocument.parse("{ok: 1}")));
+    }
+}
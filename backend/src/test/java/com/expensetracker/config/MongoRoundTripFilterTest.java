@@ -0,0 +1,72 @@
+package com.expensetracker.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the round-trip debug header
+ */
+public class MongoRoundTripFilterTest {
+    
+    private MongoRoundTripFilter filter;
+    
+    @BeforeEach
+    public void setUp() {
+        filter = new MongoRoundTripFilter(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(filter, "enabled", true);
+        ReflectionTestUtils.setField(filter, "debugHeader", true);
+        ReflectionTestUtils.setField(filter, "defaultBudget", 20);
+        ReflectionTestUtils.setField(filter, "budgetList", "");
+        ReflectionTestUtils.setField(filter, "nPlusOneThreshold", 5);
+        filter.parseBudgets();
+    }
+    
+    @Test
+    public void testDoFilter_StampsHeaderBeforeBodyIsWritten() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/expenses");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        filter.doFilter(request, response, (req, res) -> {
+            MongoRoundTrips.current().orElseThrow().recordCommand("expenses", "find", "{}", 100);
+            res.getWriter().write("[]");
+            res.flushBuffer();
+        });
+        
+        assertTrue(response.isCommitted());
+        assertEquals("1; sent=100; received=0", response.getHeader(MongoRoundTripFilter.ROUND_TRIPS_HEADER));
+        assertEquals("[]", response.getContentAsString());
+    }
+    
+    @Test
+    public void testDoFilter_StampsHeaderOnBodilessResponse() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("DELETE", "/api/expenses/1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        filter.doFilter(request, response, (req, res) -> { });
+        
+        assertEquals("0; sent=0; received=0", response.getHeader(MongoRoundTripFilter.ROUND_TRIPS_HEADER));
+    }
+    
+    @Test
+    public void testDoFilter_AsyncResponseIsNotBuffered() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/active/export");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        filter.doFilter(request, response, (req, res) -> {
+            ((MockHttpServletRequest) req).setAsyncStarted(true);
+            // A StreamingResponseBody writes from the async thread; the bytes go straight through
+            res.getOutputStream().write("{\"userId\":\"u1\"}\n".getBytes());
+        });
+        
+        assertEquals("{\"userId\":\"u1\"}\n", response.getContentAsString());
+        assertNull(response.getHeader(MongoRoundTripFilter.ROUND_TRIPS_HEADER));
+    }
+}
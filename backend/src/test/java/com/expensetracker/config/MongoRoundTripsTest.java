@@ -0,0 +1,58 @@
+package com.expensetracker.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for thread-bound round-trip tallies
+ */
+public class MongoRoundTripsTest {
+    
+    @Test
+    public void testCurrent_EmptyOutsideTally() {
+        assertFalse(MongoRoundTrips.current().isPresent());
+        
+        try (MongoRoundTrips.Tally tally = MongoRoundTrips.begin()) {
+            assertSame(tally, MongoRoundTrips.current().orElseThrow());
+        }
+        assertFalse(MongoRoundTrips.current().isPresent());
+    }
+    
+    @Test
+    public void testClose_AddsNestedTallyToParent() {
+        try (MongoRoundTrips.Tally outer = MongoRoundTrips.begin()) {
+            outer.recordCommand("users", "find", "{}", 100);
+            
+            try (MongoRoundTrips.Tally inner = MongoRoundTrips.begin()) {
+                inner.recordCommand("expenses", "find", "{\"user_id\": \"?\"}", 120);
+                inner.recordReply(400);
+                assertEquals(1, inner.getCommands());
+            }
+            
+            assertSame(outer, MongoRoundTrips.current().orElseThrow());
+            assertEquals(2, outer.getCommands());
+            assertEquals(220, outer.getBytesSent());
+            assertEquals(400, outer.getBytesReceived());
+        }
+    }
+    
+    @Test
+    public void testMostRepeatedShape_FindsLoopedQuery() {
+        try (MongoRoundTrips.Tally tally = MongoRoundTrips.begin()) {
+            tally.recordCommand("users", "find", "{}", 0);
+            for (int i = 0; i < 3; i++) {
+                tally.recordCommand("categories", "find", "{\"category_id\": \"?\"}", 0);
+            }
+            
+            Map.Entry<String, Integer> shape = tally.mostRepeatedShape().orElseThrow();
+            assertTrue(shape.getKey().startsWith("find categories"));
+            assertEquals(3, shape.getValue());
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.expensetracker.config;
+
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Unit tests for the service method timing interceptor
+ */
+public class TimedServiceInterceptorTest {
+    
+    private MeterRegistry meterRegistry;
+    private SampleService service;
+    
+    @Timed(value = "service.method", histogram = true)
+    static class SampleService {
+        public String greet(String name) {
+            return "Hello " + name;
+        }
+        
+        public void fail() {
+            throw new IllegalStateException("boom");
+        }
+    }
+    
+    @BeforeEach
+    public void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("meterRegistry", meterRegistry);
+        
+        ProxyFactory proxyFactory = new ProxyFactory(new SampleService());
+        proxyFactory.setProxyTargetClass(true);
+        proxyFactory.addAdvisor(MetricsConfig.timedServiceAdvisor(beanFactory.getBeanProvider(MeterRegistry.class)));
+        service = (SampleService) proxyFactory.getProxy();
+    }
+    
+    @Test
+    public void testInvoke_RecordsTimerPerMethod() {
+        assertEquals("Hello Ada", service.greet("Ada"));
+        service.greet("Grace");
+        
+        Timer timer = meterRegistry.find("service.method")
+                .tag("class", "SampleService")
+                .tag("method", "greet")
+                .tag("exception", "none")
+                .timer();
+        assertNotNull(timer);
+        assertEquals(2, timer.count());
+    }
+    
+    @Test
+    public void testInvoke_CountsErrorsByType() {
+        assertThrows(IllegalStateException.class, () -> service.fail());
+        
+        assertEquals(1.0, meterRegistry.get(MetricsConfig.ERROR_COUNTER)
+                .tag("method", "fail")
+                .tag("exception", "IllegalStateException")
+                .counter()
+                .count());
+        assertEquals(1, meterRegistry.get("service.method")
+                .tag("method", "fail")
+                .tag("exception", "IllegalStateException")
+                .timer()
+                .count());
+    }
+}
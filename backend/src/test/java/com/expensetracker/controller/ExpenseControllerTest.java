@@ -1,14 +1,24 @@
 package com.expensetracker.controller;
 
 import com.expensetracker.TestDataUtil;
+import com.expensetracker.config.SecurityConfig;
 import com.expensetracker.dto.ExpenseRequestDto;
 import com.expensetracker.model.Expense;
 import com.expensetracker.service.ExpenseService;
+import com.expensetracker.service.JwtService;
+import com.expensetracker.service.RateLimiter;
+import com.expensetracker.service.TenantLoadTracker;
+import com.expensetracker.service.TokenRevocationService;
+import com.expensetracker.service.VerifiedTokenCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
@@ -17,6 +27,7 @@ import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
@@ -29,9 +40,12 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
  * Unit tests for ExpenseController
  */
 @WebMvcTest(ExpenseController.class)
+@Import({SecurityConfig.class, SimpleMeterRegistry.class})
 @ActiveProfiles("test")
 public class ExpenseControllerTest {
     
+    private static final String TOKEN = "test-token";
+    
     @Autowired
     private MockMvc mockMvc;
     
@@ -41,6 +55,33 @@ public class ExpenseControllerTest {
     @MockBean
     private ExpenseService expenseService;
     
+    // Dependencies of the security filters; the JWT filter authenticates TOKEN as the test user
+    @MockBean
+    private JwtService jwtService;
+    
+    @MockBean
+    private VerifiedTokenCache verifiedTokenCache;
+    
+    @MockBean
+    private TokenRevocationService tokenRevocationService;
+    
+    @MockBean
+    private TenantLoadTracker tenantLoadTracker;
+    
+    @MockBean
+    private RateLimiter rateLimiter;
+    
+    // @EnableMongoAuditing on the application class needs a mapping context the slice does not build
+    @MockBean(name = "mongoMappingContext")
+    private MongoMappingContext mongoMappingContext;
+    
+    @BeforeEach
+    public void authenticate() {
+        when(verifiedTokenCache.verify(TOKEN)).thenReturn(Optional.of(new JwtService.VerifiedToken(
+                TestDataUtil.TEST_USER_ID, TestDataUtil.TEST_EMAIL, "USER", null, "test-token-id")));
+        when(rateLimiter.enter(TestDataUtil.TEST_USER_ID)).thenReturn(true);
+    }
+    
     @Test
     public void testCreateExpense_Success() throws Exception {
         // Given
@@ -53,7 +94,7 @@ public class ExpenseControllerTest {
         
         // When & Then
         mockMvc.perform(post("/expenses")
-                        .param("userId", userId)
+                        .header("Authorization", "Bearer " + TOKEN)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isCreated())
@@ -77,7 +118,7 @@ public class ExpenseControllerTest {
         
         // When & Then
         mockMvc.perform(post("/expenses")
-                        .param("userId", userId)
+                        .header("Authorization", "Bearer " + TOKEN)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
@@ -96,7 +137,8 @@ public class ExpenseControllerTest {
                 .thenReturn(expectedExpenses);
         
         // When & Then
-        mockMvc.perform(get("/expenses/{userId}", userId))
+        mockMvc.perform(get("/expenses")
+                        .header("Authorization", "Bearer " + TOKEN))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(2))
                 .andExpect(jsonPath("$[0].userId").value(userId))
@@ -121,6 +163,7 @@ public class ExpenseControllerTest {
         
         // When & Then
         mockMvc.perform(put("/expenses/{expenseId}", expenseId)
+                        .header("Authorization", "Bearer " + TOKEN)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isOk())
@@ -136,7 +179,8 @@ public class ExpenseControllerTest {
         String expenseId = "test_expense_123";
         
         // When & Then
-        mockMvc.perform(delete("/expenses/{expenseId}", expenseId))
+        mockMvc.perform(delete("/expenses/{expenseId}", expenseId)
+                        .header("Authorization", "Bearer " + TOKEN))
                 .andExpect(status().isNoContent());
         
         verify(expenseService).deleteExpense(expenseId);
@@ -153,7 +197,8 @@ public class ExpenseControllerTest {
                 .thenReturn(expectedExpense);
         
         // When & Then
-        mockMvc.perform(get("/expenses/details/{expenseId}", expenseId))
+        mockMvc.perform(get("/expenses/details/{expenseId}", expenseId)
+                        .header("Authorization", "Bearer " + TOKEN))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.expenseId").value(expenseId))
                 .andExpect(jsonPath("$.userId").value(TestDataUtil.TEST_USER_ID));
@@ -175,6 +220,7 @@ public class ExpenseControllerTest {
         
         // When & Then
         mockMvc.perform(get("/expenses/{userId}/date-range", userId)
+                        .header("Authorization", "Bearer " + TOKEN)
                         .param("startDate", startDate.toString())
                         .param("endDate", endDate.toString()))
                 .andExpect(status().isOk())
@@ -1,5 +1,6 @@
 package com.expensetracker.integration;
 
+import com.expensetracker.RoundTripAssertions;
 import com.expensetracker.TestDataUtil;
 import com.expensetracker.dto.CategoryRequestDto;
 import com.expensetracker.dto.ExpenseRequestDto;
@@ -9,10 +10,13 @@ import com.expensetracker.model.User;
 import com.expensetracker.repository.CategoryRepository;
 import com.expensetracker.repository.ExpenseRepository;
 import com.expensetracker.repository.UserRepository;
+import com.expensetracker.service.JwtService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.Filter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
@@ -49,11 +53,21 @@ public class ExpenseTrackerIntegrationTest {
     @Autowired
     private ExpenseRepository expenseRepository;
     
+    @Autowired
+    private JwtService jwtService;
+    
+    @Autowired
+    @Qualifier("springSecurityFilterChain")
+    private Filter springSecurityFilterChain;
+    
     private MockMvc mockMvc;
     
     @BeforeEach
     public void setup() {
-        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext).build();
+        // Run requests through the security chain so the JWT filter sets the principal controllers read
+        mockMvc = MockMvcBuilders.webAppContextSetup(webApplicationContext)
+                .addFilters(springSecurityFilterChain)
+                .build();
         
         // Clean up test data
         expenseRepository.deleteAll();
@@ -70,13 +84,14 @@ public class ExpenseTrackerIntegrationTest {
         // Step 2: Create a category
         Category category = TestDataUtil.createTestCategory();
         categoryRepository.save(category);
+        String token = bearerToken(user);
         
         // Step 3: Create an expense
         ExpenseRequestDto expenseRequest = TestDataUtil.createTestExpenseRequest();
         expenseRequest.setCategoryId(category.getCategoryId());
         
         String createExpenseResponse = mockMvc.perform(post("/expenses")
-                        .param("userId", user.getUserId())
+                        .header("Authorization", token)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(expenseRequest)))
                 .andExpect(status().isCreated())
@@ -89,7 +104,8 @@ public class ExpenseTrackerIntegrationTest {
         Expense createdExpense = objectMapper.readValue(createExpenseResponse, Expense.class);
         
         // Step 4: Retrieve the expense
-        mockMvc.perform(get("/expenses/details/{expenseId}", createdExpense.getExpenseId()))
+        mockMvc.perform(get("/expenses/details/{expenseId}", createdExpense.getExpenseId())
+                        .header("Authorization", token))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.expenseId").value(createdExpense.getExpenseId()))
                 .andExpect(jsonPath("$.amount").value(TestDataUtil.TEST_AMOUNT));
@@ -99,6 +115,7 @@ public class ExpenseTrackerIntegrationTest {
         expenseRequest.setPayee("Updated Payee");
         
         mockMvc.perform(put("/expenses/{expenseId}", createdExpense.getExpenseId())
+                        .header("Authorization", token)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(expenseRequest)))
                 .andExpect(status().isOk())
@@ -106,23 +123,27 @@ public class ExpenseTrackerIntegrationTest {
                 .andExpect(jsonPath("$.payee").value("Updated Payee"));
         
         // Step 6: Get all expenses for user
-        mockMvc.perform(get("/expenses/{userId}", user.getUserId()))
+        mockMvc.perform(get("/expenses")
+                        .header("Authorization", token))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1));
         
         // Step 7: Get expense summary
-        mockMvc.perform(get("/expenses/{userId}/summary", user.getUserId())
+        mockMvc.perform(get("/expenses/summary")
+                        .header("Authorization", token)
                         .param("period", "MONTHLY"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.userId").value(user.getUserId()))
                 .andExpect(jsonPath("$.totalExpenses").value(1));
         
         // Step 8: Delete the expense
-        mockMvc.perform(delete("/expenses/{expenseId}", createdExpense.getExpenseId()))
+        mockMvc.perform(delete("/expenses/{expenseId}", createdExpense.getExpenseId())
+                        .header("Authorization", token))
                 .andExpect(status().isNoContent());
         
         // Step 9: Verify deletion
-        mockMvc.perform(get("/expenses/{userId}", user.getUserId()))
+        mockMvc.perform(get("/expenses")
+                        .header("Authorization", token))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(0));
     }
@@ -132,14 +153,17 @@ public class ExpenseTrackerIntegrationTest {
         // Step 1: Create a user
         User user = TestDataUtil.createTestUser();
         userRepository.save(user);
+        String token = bearerToken(user);
         
-        // Step 2: Get categories (should be empty initially)
-        mockMvc.perform(get("/categories/{userId}", user.getUserId()))
+        // Step 2: Get categories (the defaults are served from the template before any is stored)
+        mockMvc.perform(get("/categories")
+                        .header("Authorization", token))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.length()").value(0));
+                .andExpect(jsonPath("$.length()").value(6));
         
         // Step 3: Initialize default categories
-        mockMvc.perform(post("/categories/{userId}/initialize-defaults", user.getUserId()))
+        mockMvc.perform(post("/categories/{userId}/initialize-defaults", user.getUserId())
+                        .header("Authorization", token))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.length()").value(6)); // Should create 6 default categories
         
@@ -147,7 +171,7 @@ public class ExpenseTrackerIntegrationTest {
         CategoryRequestDto categoryRequest = TestDataUtil.createTestCategoryRequest();
         
         String createCategoryResponse = mockMvc.perform(post("/categories")
-                        .param("userId", user.getUserId())
+                        .header("Authorization", token)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(categoryRequest)))
                 .andExpect(status().isCreated())
@@ -159,7 +183,8 @@ public class ExpenseTrackerIntegrationTest {
         Category createdCategory = objectMapper.readValue(createCategoryResponse, Category.class);
         
         // Step 5: Get all categories (should have 7 now)
-        mockMvc.perform(get("/categories/{userId}", user.getUserId()))
+        mockMvc.perform(get("/categories")
+                        .header("Authorization", token))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(7));
         
@@ -168,18 +193,46 @@ public class ExpenseTrackerIntegrationTest {
         categoryRequest.setDescription("Updated description");
         
         mockMvc.perform(put("/categories/{categoryId}", createdCategory.getCategoryId())
+                        .header("Authorization", token)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(categoryRequest)))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.name").value("Updated Test Category"));
         
-        // Step 7: Delete the custom category
-        mockMvc.perform(delete("/categories/{categoryId}", createdCategory.getCategoryId()))
-                .andExpect(status().isNoContent());
+        // Step 7: Delete the custom category; its expenses move to "Others" in a background job
+        mockMvc.perform(delete("/categories/{categoryId}", createdCategory.getCategoryId())
+                        .header("Authorization", token))
+                .andExpect(status().isAccepted());
         
         // Step 8: Verify deletion (should have 6 categories again)
-        mockMvc.perform(get("/categories/{userId}", user.getUserId()))
+        mockMvc.perform(get("/categories")
+                        .header("Authorization", token))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(6));
     }
+    
+    @Test
+    public void testCreateExpense_StaysWithinRoundTripBudget() throws Exception {
+        User user = TestDataUtil.createTestUser();
+        userRepository.save(user);
+        
+        Category category = TestDataUtil.createTestCategory();
+        categoryRepository.save(category);
+        
+        ExpenseRequestDto expenseRequest = TestDataUtil.createTestExpenseRequest();
+        expenseRequest.setCategoryId(category.getCategoryId());
+        
+        String token = bearerToken(user);
+        
+        // User check, category lookup, insert and stats counter update
+        RoundTripAssertions.assertMaxRoundTrips(5, () -> mockMvc.perform(post("/expenses")
+                        .header("Authorization", token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(expenseRequest)))
+                .andExpect(status().isCreated()));
+    }
+    
+    private String bearerToken(User user) {
+        return "Bearer " + jwtService.generateToken(user.getUserId(), user.getEmail(), user.getRole());
+    }
 }
@@ -0,0 +1,135 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.BackgroundJob;
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for duplicate category compaction
+ */
+public class CategoryMaintenanceServiceTest {
+    
+    private static final String COLLIDING_ID = "bob_street_food";
+    
+    private MongoTemplate mongoTemplate;
+    private Consumer<BackgroundJob> compactionHandler;
+    
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        BackgroundJobService backgroundJobService = mock(BackgroundJobService.class);
+        
+        CategoryMaintenanceService service = new CategoryMaintenanceService(mongoTemplate, backgroundJobService);
+        service.registerJobHandlers();
+        
+        ArgumentCaptor<Consumer<BackgroundJob>> handler = ArgumentCaptor.forClass(Consumer.class);
+        verify(backgroundJobService).registerHandler(eq(BackgroundJob.JobType.CATEGORY_COMPACTION), handler.capture());
+        compactionHandler = handler.getValue();
+        
+        when(mongoTemplate.aggregate(any(TypedAggregation.class), eq(Document.class))).thenReturn(
+                new AggregationResults<>(List.of(new Document("_id", COLLIDING_ID).append("count", 2)), new Document()));
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(Expense.class)))
+                .thenReturn(UpdateResult.acknowledged(1, 1L, null));
+        IndexOperations indexOps = mock(IndexOperations.class);
+        when(mongoTemplate.indexOps(Category.class)).thenReturn(indexOps);
+    }
+    
+    @Test
+    public void testCompaction_CrossUserCollisionIsRenumberedNotDeleted() {
+        // "bob_street" + "Food" and "bob" + "street food" generate the same legacy categoryId
+        Category bobStreetFood = category("c1", "bob_street", "Food", true, LocalDateTime.now());
+        Category bobStreetFoodCustom = category("c2", "bob", "street food", false, LocalDateTime.now().minusDays(1));
+        when(mongoTemplate.find(any(Query.class), eq(Category.class))).thenReturn(List.of(bobStreetFood, bobStreetFoodCustom));
+        
+        compactionHandler.accept(BackgroundJob.builder().type(BackgroundJob.JobType.CATEGORY_COMPACTION).build());
+        
+        // Neither user loses a category
+        verify(mongoTemplate, never()).remove(any(Query.class), eq(Category.class));
+        
+        // Bob's copy moves to a new id
+        ArgumentCaptor<Query> renumbered = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> renumbering = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(renumbered.capture(), renumbering.capture(), eq(Category.class));
+        assertEquals("c2", renumbered.getValue().getQueryObject().get("_id"));
+        String newId = ((Document) renumbering.getValue().getUpdateObject().get("$set")).getString("categoryId");
+        assertTrue(newId.startsWith(COLLIDING_ID + "_"));
+        
+        // Each user's expenses are updated only within that user, bob's follow the new id under bob's own name
+        ArgumentCaptor<Query> expenseQueries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> expenseUpdates = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate, times(2)).updateMulti(expenseQueries.capture(), expenseUpdates.capture(), eq(Expense.class));
+        
+        Document ownerFilter = expenseQueries.getAllValues().get(0).getQueryObject();
+        Document ownerSet = (Document) expenseUpdates.getAllValues().get(0).getUpdateObject().get("$set");
+        assertEquals("bob_street", ownerFilter.get("userId"));
+        assertEquals(COLLIDING_ID, ownerSet.getString("categoryId"));
+        assertEquals("Food", ownerSet.getString("category"));
+        
+        Document bobFilter = expenseQueries.getAllValues().get(1).getQueryObject();
+        Document bobSet = (Document) expenseUpdates.getAllValues().get(1).getUpdateObject().get("$set");
+        assertEquals("bob", bobFilter.get("userId"));
+        assertEquals(COLLIDING_ID, bobFilter.get("categoryId"));
+        assertEquals(newId, bobSet.getString("categoryId"));
+        assertEquals("street food", bobSet.getString("category"));
+        assertNotEquals(COLLIDING_ID, newId);
+    }
+    
+    @Test
+    public void testCompaction_MergesCopiesOfTheSameUser() {
+        Category newer = category("c1", "alice", "Food", false, LocalDateTime.now());
+        Category older = category("c2", "alice", "Food", true, LocalDateTime.now().minusDays(1));
+        when(mongoTemplate.find(any(Query.class), eq(Category.class))).thenReturn(List.of(newer, older));
+        
+        compactionHandler.accept(BackgroundJob.builder().type(BackgroundJob.JobType.CATEGORY_COMPACTION).build());
+        
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), eq(Category.class));
+        assertTrue(removed.getValue().getQueryObject().toJson().contains("c2"));
+        
+        // The survivor inherits the default flag and keeps its id
+        ArgumentCaptor<Update> survivorUpdate = ArgumentCaptor.forClass(Update.class);
+        verify(mongoTemplate).updateFirst(any(Query.class), survivorUpdate.capture(), eq(Category.class));
+        Document set = (Document) survivorUpdate.getValue().getUpdateObject().get("$set");
+        assertEquals(true, set.get("isDefault"));
+        assertFalse(set.containsKey("categoryId"));
+    }
+    
+    private static Category category(String id, String userId, String name, boolean isDefault, LocalDateTime updatedAt) {
+        return Category.builder()
+                .id(id)
+                .categoryId(COLLIDING_ID)
+                .userId(userId)
+                .name(name)
+                .isDefault(isDefault)
+                .updatedAt(updatedAt)
+                .build();
+    }
+}
@@ -0,0 +1,155 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.BackgroundJob;
+import com.expensetracker.repository.UserRepository;
+import com.mongodb.client.result.DeleteResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the orphan repair job's handling of expenses whose category was just deleted
+ */
+public class OrphanRepairServiceTest {
+    
+    private static final String USER_ID = "USR-1";
+    
+    private MongoTemplate mongoTemplate;
+    private BackgroundJobService backgroundJobService;
+    private CategoryService categoryService;
+    private UserRepository userRepository;
+    private UserStatsService userStatsService;
+    private Consumer<BackgroundJob> repairHandler;
+    
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        backgroundJobService = mock(BackgroundJobService.class);
+        categoryService = mock(CategoryService.class);
+        userRepository = mock(UserRepository.class);
+        userStatsService = mock(UserStatsService.class);
+        
+        OrphanRepairService service = new OrphanRepairService(mongoTemplate, backgroundJobService,
+                categoryService, userRepository, userStatsService);
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+        service.registerJobHandlers();
+        
+        ArgumentCaptor<Consumer<BackgroundJob>> handler = ArgumentCaptor.forClass(Consumer.class);
+        verify(backgroundJobService).registerHandler(eq(BackgroundJob.JobType.ORPHAN_REPAIR), handler.capture());
+        repairHandler = handler.getValue();
+    }
+    
+    @Test
+    public void testRepair_SkipsExpensesOfCategoryBeingReassigned() {
+        Document reassigning = expense("e1", USER_ID, "CAT-DELETED");
+        Document orphan = expense("e2", USER_ID, "CAT-GONE");
+        givenOrphans(reassigning, orphan);
+        when(backgroundJobService.getActiveTargets(eq(BackgroundJob.JobType.CATEGORY_REASSIGN), anyCollection()))
+                .thenReturn(Set.of("CAT-DELETED"));
+        when(mongoTemplate.remove(any(Query.class), any(Class.class))).thenReturn(DeleteResult.acknowledged(1));
+        
+        BackgroundJob job = runMissingCategoryPhase(OrphanRepairService.RepairPolicy.DELETE);
+        
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).remove(removed.capture(), any(Class.class));
+        String filter = removed.getValue().getQueryObject().toJson();
+        assertTrue(filter.contains("e2"));
+        assertFalse(filter.contains("e1"));
+        assertEquals(1L, job.getResult().get("skipped_pending_reassignment"));
+        verify(userStatsService).recordExpensesRemoved(eq(USER_ID), eq(1L), any());
+    }
+    
+    @Test
+    public void testRepair_DoesNotReassignToOthersWhileReassignmentRuns() {
+        givenOrphans(expense("e1", USER_ID, "CAT-DELETED"));
+        when(backgroundJobService.getActiveTargets(eq(BackgroundJob.JobType.CATEGORY_REASSIGN), anyCollection()))
+                .thenReturn(Set.of("CAT-DELETED"));
+        
+        runMissingCategoryPhase(OrphanRepairService.RepairPolicy.REASSIGN);
+        
+        verify(categoryService, never()).getOrCreateDefaultCategory(anyString(), anyString());
+        verify(mongoTemplate, never()).bulkOps(any(), any(Class.class));
+    }
+    
+    @Test
+    public void testRepair_LeavesExpensesWithoutOwnerAlone() {
+        givenOrphans(expense("e1", "USR-GONE", "CAT-GONE"));
+        when(backgroundJobService.getActiveTargets(any(), anyCollection())).thenReturn(Set.of());
+        when(userRepository.existsByUserId("USR-GONE")).thenReturn(false);
+        
+        runMissingCategoryPhase(OrphanRepairService.RepairPolicy.REASSIGN);
+        
+        verify(categoryService, never()).getOrCreateDefaultCategory(anyString(), anyString());
+    }
+    
+    @Test
+    public void testRepair_DryRunChangesNothing() {
+        givenOrphans(expense("e1", USER_ID, "CAT-GONE"));
+        when(backgroundJobService.getActiveTargets(any(), anyCollection())).thenReturn(Set.of());
+        
+        BackgroundJob job = job(OrphanRepairService.RepairPolicy.DELETE, true);
+        repairHandler.accept(job);
+        
+        verify(mongoTemplate, never()).remove(any(Query.class), any(Class.class));
+        assertEquals(1L, job.getResult().get("expenses_without_category_found"));
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void givenOrphans(Document... orphans) {
+        when(mongoTemplate.aggregateStream(any(TypedAggregation.class), eq(Document.class)))
+                .thenReturn(Stream.of(orphans));
+    }
+    
+    private BackgroundJob runMissingCategoryPhase(OrphanRepairService.RepairPolicy policy) {
+        BackgroundJob job = job(policy, false);
+        repairHandler.accept(job);
+        return job;
+    }
+    
+    // Starts in the missing-category phase; the mocked job service never advances the phase further
+    private static BackgroundJob job(OrphanRepairService.RepairPolicy policy, boolean dryRun) {
+        Map<String, String> params = new HashMap<>();
+        params.put("policy", policy.name());
+        params.put("dryRun", String.valueOf(dryRun));
+        return BackgroundJob.builder()
+                .jobId("orphan_repair_test")
+                .type(BackgroundJob.JobType.ORPHAN_REPAIR)
+                .phase("EXPENSES_WITHOUT_CATEGORY")
+                .params(params)
+                .result(new LinkedHashMap<>())
+                .build();
+    }
+    
+    private static Document expense(String id, String userId, String categoryId) {
+        return new Document("_id", id)
+                .append("user_id", userId)
+                .append("category_id", categoryId)
+                .append("amount", "12.50");
+    }
+}
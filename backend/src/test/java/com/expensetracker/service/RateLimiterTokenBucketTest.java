@@ -0,0 +1,50 @@
+package com.expensetracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the lock-free token bucket used by the rate limiter
+ */
+public class RateLimiterTokenBucketTest {
+    
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+    
+    @Test
+    public void testTryAcquire_AllowsBurstUpToCapacity() {
+        RateLimiter.TokenBucket bucket = new RateLimiter.TokenBucket(5, 60);
+        long now = 1_000 * ONE_SECOND;
+        
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, bucket.tryAcquire(now));
+        }
+        assertTrue(bucket.tryAcquire(now) > 0);
+    }
+    
+    @Test
+    public void testTryAcquire_RefillsOverTime() {
+        RateLimiter.TokenBucket bucket = new RateLimiter.TokenBucket(1, 60);
+        long now = 1_000 * ONE_SECOND;
+        
+        assertEquals(0, bucket.tryAcquire(now));
+        
+        // One token per second: the next one is due in exactly one second
+        assertEquals(ONE_SECOND, bucket.tryAcquire(now));
+        assertEquals(0, bucket.tryAcquire(now + ONE_SECOND));
+    }
+    
+    @Test
+    public void testIsFull_AfterIdlePeriod() {
+        RateLimiter.TokenBucket bucket = new RateLimiter.TokenBucket(3, 60);
+        long now = 1_000 * ONE_SECOND;
+        
+        bucket.tryAcquire(now);
+        assertFalse(bucket.isFull(now));
+        assertTrue(bucket.isFull(now + ONE_SECOND));
+    }
+}
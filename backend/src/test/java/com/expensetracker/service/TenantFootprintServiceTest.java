@@ -0,0 +1,70 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.Expense;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.AggregationResults;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the hot-tenant storage report
+ */
+public class TenantFootprintServiceTest {
+    
+    private MongoTemplate mongoTemplate;
+    private TenantFootprintService service;
+    
+    @BeforeEach
+    public void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        service = new TenantFootprintService(mongoTemplate, mock(TenantLoadTracker.class));
+        ReflectionTestUtils.setField(service, "defaultSampleSize", 100);
+        
+        when(mongoTemplate.getCollectionName(Expense.class)).thenReturn("expenses");
+        when(mongoTemplate.estimatedCount(Expense.class)).thenReturn(1000L);
+        when(mongoTemplate.aggregate(any(Aggregation.class), eq("expenses"), eq(Document.class))).thenReturn(
+                new AggregationResults<>(List.of(new Document("_id", "u1").append("count", 7).append("bytes", 700)), new Document()));
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testDefaultReport_SamplesAndScalesStorage() {
+        Map<String, Object> report = service.getHotTenantReport(10);
+        
+        assertTrue((Boolean) report.get("storage_sampled"));
+        Map<String, Object> row = ((List<Map<String, Object>>) report.get("storage")).get(0);
+        assertEquals(70L, row.get("expense_count"));
+        assertEquals(7000L, row.get("bson_bytes"));
+        assertTrue(capturedPipeline().contains("$sample"));
+    }
+    
+    @Test
+    public void testExplicitZeroSample_RunsExactScan() {
+        Map<String, Object> report = service.getHotTenantReport(10, 0);
+        
+        assertFalse((Boolean) report.get("storage_sampled"));
+        assertFalse(capturedPipeline().contains("$sample"));
+    }
+    
+    private String capturedPipeline() {
+        ArgumentCaptor<Aggregation> aggregation = ArgumentCaptor.forClass(Aggregation.class);
+        verify(mongoTemplate).aggregate(aggregation.capture(), eq("expenses"), eq(Document.class));
+        return aggregation.getValue().toPipeline(Aggregation.DEFAULT_CONTEXT).toString();
+    }
+}
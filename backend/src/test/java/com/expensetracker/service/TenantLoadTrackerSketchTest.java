@@ -0,0 +1,88 @@
+package com.expensetracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the Space-Saving sketch behind the hot-tenant report
+ */
+public class TenantLoadTrackerSketchTest {
+    
+    @Test
+    public void testSnapshot_KeepsHeavyHittersWithinCapacity() {
+        TenantLoadTracker.SpaceSaving sketch = new TenantLoadTracker.SpaceSaving(10);
+        
+        // Two heavy users interleaved with many one-off users
+        for (int i = 0; i < 1000; i++) {
+            sketch.add("heavy-a");
+            if (i % 2 == 0) {
+                sketch.add("heavy-b");
+            }
+            sketch.add("light-" + i);
+        }
+        
+        List<TenantLoadTracker.SpaceSaving.Counter> counters = sketch.snapshot();
+        counters.sort(Comparator.comparingLong(TenantLoadTracker.SpaceSaving.Counter::count).reversed());
+        
+        assertTrue(counters.size() <= 10);
+        assertEquals("heavy-a", counters.get(0).key());
+        assertEquals("heavy-b", counters.get(1).key());
+        assertTrue(counters.get(0).count() >= 1000);
+        assertTrue(counters.get(1).count() >= 500);
+    }
+    
+    @Test
+    public void testSnapshot_ExactBelowCapacity() {
+        TenantLoadTracker.SpaceSaving sketch = new TenantLoadTracker.SpaceSaving(10);
+        sketch.add("user-1");
+        sketch.add("user-1");
+        sketch.add("user-2");
+        
+        List<TenantLoadTracker.SpaceSaving.Counter> counters = sketch.snapshot();
+        
+        assertEquals(2, counters.size());
+        assertTrue(counters.stream().allMatch(counter -> counter.error() == 0));
+    }
+    
+    @Test
+    public void testSnapshot_CountsStayExactForRetainedKeysAfterEvictions() {
+        TenantLoadTracker.SpaceSaving sketch = new TenantLoadTracker.SpaceSaving(3);
+        for (int i = 0; i < 5; i++) {
+            sketch.add("steady");
+        }
+        sketch.add("a");
+        sketch.add("b");
+        sketch.add("c"); // Evicts a counter of 1, inherits it as error
+        
+        List<TenantLoadTracker.SpaceSaving.Counter> counters = sketch.snapshot();
+        
+        assertEquals(3, counters.size());
+        TenantLoadTracker.SpaceSaving.Counter steady = counters.stream()
+                .filter(counter -> counter.key().equals("steady")).findFirst().orElseThrow();
+        assertEquals(5, steady.count());
+        TenantLoadTracker.SpaceSaving.Counter newcomer = counters.stream()
+                .filter(counter -> counter.key().equals("c")).findFirst().orElseThrow();
+        assertEquals(2, newcomer.count());
+        assertEquals(1, newcomer.error());
+    }
+    
+    @Test
+    public void testGetTopUsers_MergesStripes() {
+        TenantLoadTracker tracker = new TenantLoadTracker(64, 60000);
+        for (int i = 0; i < 50; i++) {
+            tracker.record("heavy");
+            tracker.record("user-" + (i % 10));
+        }
+        
+        List<Map<String, Object>> top = tracker.getTopUsers(3);
+        
+        assertEquals("heavy", top.get(0).get("user_id"));
+        assertEquals(50L, top.get(0).get("requests"));
+    }
+}
@@ -0,0 +1,45 @@
+package com.expensetracker.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit tests for the Bloom filter behind token revocation checks
+ */
+public class TokenRevocationBloomFilterTest {
+    
+    @Test
+    public void testMightContain_NoFalseNegatives() {
+        TokenRevocationService.BloomFilter filter = new TokenRevocationService.BloomFilter(1000, 0.01);
+        
+        for (int i = 0; i < 1000; i++) {
+            filter.put("revoked-" + i);
+        }
+        
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(filter.mightContain("revoked-" + i));
+        }
+    }
+    
+    @Test
+    public void testMightContain_FalsePositiveRateNearTarget() {
+        TokenRevocationService.BloomFilter filter = new TokenRevocationService.BloomFilter(1000, 0.01);
+        for (int i = 0; i < 1000; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+        
+        int falsePositives = 0;
+        int probes = 100_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        
+        // Target is 1%; allow generous headroom for randomness
+        assertTrue(falsePositives < probes * 0.03, "False positives: " + falsePositives);
+    }
+}
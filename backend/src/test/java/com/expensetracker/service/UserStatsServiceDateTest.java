@@ -0,0 +1,42 @@
+package com.expensetracker.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Unit tests for reading aggregated expense dates back in reconciliation
+ */
+public class UserStatsServiceDateTest {
+    
+    private final TimeZone originalZone = TimeZone.getDefault();
+    
+    @AfterEach
+    public void restoreZone() {
+        TimeZone.setDefault(originalZone);
+    }
+    
+    @Test
+    public void testToLocalDate_KeepsDayEastOfUtc() {
+        TimeZone.setDefault(TimeZone.getTimeZone("Asia/Kolkata"));
+        assertRoundTrip(LocalDate.of(2024, 3, 1));
+    }
+    
+    @Test
+    public void testToLocalDate_KeepsDayWestOfUtc() {
+        TimeZone.setDefault(TimeZone.getTimeZone("America/Los_Angeles"));
+        assertRoundTrip(LocalDate.of(2024, 12, 31));
+    }
+    
+    // Stored the way Spring Data converts a LocalDate: midnight in the default zone
+    private static void assertRoundTrip(LocalDate date) {
+        Date stored = Date.from(date.atStartOfDay(ZoneId.systemDefault()).toInstant());
+        assertEquals(date, UserStatsService.toLocalDate(stored));
+    }
+}
@@ -0,0 +1,90 @@
+package com.expensetracker.service;
+
+import com.expensetracker.model.BackgroundJob;
+import com.expensetracker.model.Expense;
+import com.expensetracker.model.UserExpenseStats;
+import com.expensetracker.repository.ExpenseRepository;
+import com.mongodb.client.result.UpdateResult;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.aggregation.TypedAggregation;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for reconciling the per-user expense counters
+ */
+public class UserStatsServiceReconciliationTest {
+    
+    private MongoTemplate mongoTemplate;
+    private BackgroundJobService backgroundJobService;
+    private UserStatsService service;
+    private Consumer<BackgroundJob> reconcileHandler;
+    
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        mongoTemplate = mock(MongoTemplate.class);
+        backgroundJobService = mock(BackgroundJobService.class);
+        
+        service = new UserStatsService(mongoTemplate, mock(ExpenseRepository.class), backgroundJobService);
+        ReflectionTestUtils.setField(service, "batchSize", 500);
+        service.registerJobHandlers();
+        
+        ArgumentCaptor<Consumer<BackgroundJob>> handler = ArgumentCaptor.forClass(Consumer.class);
+        verify(backgroundJobService).registerHandler(eq(BackgroundJob.JobType.USER_STATS_RECONCILE), handler.capture());
+        reconcileHandler = handler.getValue();
+    }
+    
+    @Test
+    public void testReconciliation_DoesNotResetCountersWrittenDuringTheJob() {
+        when(mongoTemplate.aggregateStream(any(TypedAggregation.class), eq(Document.class))).thenReturn(Stream.empty());
+        when(mongoTemplate.bulkOps(any(BulkOperations.BulkMode.class), eq(UserExpenseStats.class)))
+                .thenReturn(mock(BulkOperations.class));
+        when(mongoTemplate.updateMulti(any(Query.class), any(Update.class), eq(UserExpenseStats.class)))
+                .thenReturn(UpdateResult.acknowledged(0, 0L, null));
+        
+        reconcileHandler.accept(BackgroundJob.builder().type(BackgroundJob.JobType.USER_STATS_RECONCILE).build());
+        
+        ArgumentCaptor<Query> reset = ArgumentCaptor.forClass(Query.class);
+        verify(mongoTemplate).updateMulti(reset.capture(), any(Update.class), eq(UserExpenseStats.class));
+        String filter = reset.getValue().getQueryObject().toString();
+        assertTrue(filter.contains("reconciledAt"), filter);
+        assertTrue(filter.contains("updatedAt=Document{{$lt="), filter);
+    }
+    
+    @Test
+    public void testReconcileIfMissing_StartsBackfillWhenStatsAreEmpty() {
+        when(mongoTemplate.estimatedCount(UserExpenseStats.class)).thenReturn(0L);
+        when(mongoTemplate.exists(any(Query.class), eq(Expense.class))).thenReturn(true);
+        
+        service.reconcileIfMissing();
+        
+        verify(backgroundJobService).submit(any(BackgroundJob.class));
+    }
+    
+    @Test
+    public void testReconcileIfMissing_SkipsWhenStatsExist() {
+        when(mongoTemplate.estimatedCount(UserExpenseStats.class)).thenReturn(42L);
+        
+        service.reconcileIfMissing();
+        
+        verify(backgroundJobService, never()).submit(any(BackgroundJob.class));
+    }
+}
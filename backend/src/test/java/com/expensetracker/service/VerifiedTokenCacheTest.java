@@ -0,0 +1,66 @@
+package com.expensetracker.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for the verified token cache's bounds
+ */
+public class VerifiedTokenCacheTest {
+    
+    private JwtService jwtService;
+    private SimpleMeterRegistry meterRegistry;
+    private VerifiedTokenCache cache;
+    
+    @BeforeEach
+    public void setUp() {
+        jwtService = mock(JwtService.class);
+        when(jwtService.verifyToken(anyString())).thenAnswer(invocation -> Optional.of(new JwtService.VerifiedToken(
+                "user", "user@example.com", "USER", new Date(System.currentTimeMillis() + 3_600_000), invocation.getArgument(0))));
+        
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new VerifiedTokenCache(jwtService, meterRegistry);
+        ReflectionTestUtils.setField(cache, "maxSize", 100);
+        ReflectionTestUtils.setField(cache, "maxTtlSeconds", 600L);
+        ReflectionTestUtils.setField(cache, "minSweepIntervalMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "evictionSampleSize", 8);
+        cache.registerMetrics();
+    }
+    
+    @Test
+    public void testVerify_FullOfLiveTokens_EvictsToAdmitNewToken() {
+        for (int i = 0; i < 100; i++) {
+            cache.verify("token-" + i);
+        }
+        assertEquals(100, meterRegistry.get("auth.token.cache.size").gauge().value());
+        
+        cache.verify("newcomer");
+        cache.verify("newcomer");
+        
+        // Still bounded, and the newcomer was admitted: its second lookup is a hit
+        assertEquals(100, meterRegistry.get("auth.token.cache.size").gauge().value());
+        verify(jwtService, times(1)).verifyToken("newcomer");
+    }
+    
+    @Test
+    public void testVerify_FullCache_StaysBoundedUnderChurn() {
+        for (int i = 0; i < 10_000; i++) {
+            cache.verify("token-" + i);
+        }
+        
+        assertTrue(meterRegistry.get("auth.token.cache.size").gauge().value() <= 100);
+    }
+}
@@ -0,0 +1,44 @@
+package com.expensetracker.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Entry point of benchmarks.jar. Accepts the usual JMH options; unless a result format is given,
+ * results are written as JSON to target/jmh-results/&lt;commit&gt;.json so runs can be compared per commit.
+ * The commit is taken from -Dbenchmark.commit or the GIT_COMMIT environment variable.
+ */
+public class BenchmarkRunner {
+    
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList() || commandLine.shouldListProfilers()
+                || commandLine.shouldListResultFormats() || commandLine.shouldListWithParams()) {
+            // Informational options are handled by the stock JMH launcher
+            org.openjdk.jmh.Main.main(args);
+            return;
+        }
+        
+        ChainedOptionsBuilder options = new OptionsBuilder().parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue()) {
+            File resultFile = new File("target/jmh-results", commitId() + ".json");
+            resultFile.getParentFile().mkdirs();
+            options.resultFormat(ResultFormatType.JSON).result(resultFile.getPath());
+        }
+        
+        new Runner(options.build()).run();
+    }
+    
+    private static String commitId() {
+        String commit = System.getProperty("benchmark.commit", System.getenv("GIT_COMMIT"));
+        return commit == null || commit.isBlank() ? "local-" + System.currentTimeMillis() : commit.trim();
+    }
+}
@@ -0,0 +1,93 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.repository.CategoryRepository;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.repository.UserRepository;
+import com.expensetracker.service.BackgroundJobService;
+import com.expensetracker.service.CategoryMaintenanceService;
+import com.expensetracker.service.CategoryService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.when;
+
+/**
+ * Category resolution in {@link CategoryService}: stored categories, virtual defaults derived
+ * from the shared template, and merging defaults into a user's category list
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CategoryResolutionBenchmark {
+    
+    @Param({"false", "true"})
+    private boolean lazyDefaults;
+    
+    private CategoryService categoryService;
+    private String storedCategoryId;
+    private String virtualCategoryId;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Category> categories = SyntheticData.categories();
+        // The user customised one category; the rest are served from the template when lazy
+        Category stored = categories.get(0);
+        storedCategoryId = stored.getCategoryId();
+        virtualCategoryId = categories.get(categories.size() - 1).getCategoryId();
+        
+        CategoryRepository categoryRepository = Fixtures.stub(CategoryRepository.class);
+        when(categoryRepository.findFirstByCategoryId(anyString())).thenReturn(Optional.empty());
+        when(categoryRepository.findFirstByCategoryId(storedCategoryId)).thenReturn(Optional.of(stored));
+        when(categoryRepository.findByUserIdOrderByName(SyntheticData.USER_ID))
+                .thenReturn(lazyDefaults ? List.of(stored) : categories);
+        
+        UserRepository userRepository = Fixtures.stub(UserRepository.class);
+        when(userRepository.existsByUserId(SyntheticData.USER_ID)).thenReturn(true);
+        
+        categoryService = new CategoryService(categoryRepository, Fixtures.stub(CategoryMaintenanceService.class),
+                Fixtures.stub(BackgroundJobService.class), userRepository, Fixtures.stub(ExpenseRepository.class),
+                Fixtures.stub(MongoTemplate.class));
+        ReflectionTestUtils.setField(categoryService, "lazyDefaults", lazyDefaults);
+    }
+    
+    @Benchmark
+    public Category storedCategory() {
+        return categoryService.getCategoryByIdOrThrow(storedCategoryId);
+    }
+    
+    @Benchmark
+    public Optional<Category> templateCategory() {
+        // Without lazy defaults the category is not stored either, so this measures the miss path
+        try {
+            return Optional.of(categoryService.getCategoryByIdOrThrow(virtualCategoryId));
+        } catch (RuntimeException e) {
+            return Optional.empty();
+        }
+    }
+    
+    @Benchmark
+    public List<Category> userCategories() {
+        return categoryService.getCategoriesByUserId(SyntheticData.USER_ID);
+    }
+}
@@ -0,0 +1,77 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.dto.ExpenseSummaryDto;
+import com.expensetracker.model.Expense;
+import com.expensetracker.repository.ExpenseRepository;
+import com.expensetracker.service.CategoryService;
+import com.expensetracker.service.ExpenseService;
+import com.expensetracker.service.UserService;
+import com.expensetracker.service.UserStatsService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+/**
+ * In-memory cost of {@link ExpenseService#getExpenseSummary}: totals, category breakdown,
+ * monthly trends and top payees over synthetic expense lists. Repository calls are stubbed
+ * with precomputed lists, so only the service's own computation is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExpenseSummaryBenchmark {
+    
+    @Param({"100", "1000", "10000", "100000"})
+    private int expenseCount;
+    
+    private ExpenseService expenseService;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        List<Expense> expenses = SyntheticData.expenses(expenseCount);
+        Map<LocalDate, List<Expense>> byMonthStart = SyntheticData.byMonthStart(expenses);
+        endDate = LocalDate.now();
+        startDate = endDate.minusDays(365);
+        
+        ExpenseRepository expenseRepository = Fixtures.stub(ExpenseRepository.class);
+        when(expenseRepository.findByUserIdAndDateBetween(eq(SyntheticData.USER_ID), any(), any()))
+                .thenAnswer(invocation -> {
+                    LocalDate from = invocation.getArgument(1);
+                    return from.equals(startDate) ? expenses : byMonthStart.getOrDefault(from, List.of());
+                });
+        
+        CategoryService categoryService = Fixtures.stub(CategoryService.class);
+        when(categoryService.getCategoriesByUserId(SyntheticData.USER_ID)).thenReturn(SyntheticData.categories());
+        
+        expenseService = new ExpenseService(expenseRepository, categoryService,
+                Fixtures.stub(UserService.class), Fixtures.stub(UserStatsService.class));
+    }
+    
+    @Benchmark
+    public ExpenseSummaryDto summary() {
+        return expenseService.getExpenseSummary(SyntheticData.USER_ID, "CUSTOM", startDate, endDate);
+    }
+}
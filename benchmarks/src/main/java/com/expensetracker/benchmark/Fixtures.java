@@ -0,0 +1,57 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.service.JwtService;
+import com.expensetracker.service.TenantLoadTracker;
+import com.expensetracker.service.TokenRevocationService;
+import com.expensetracker.service.VerifiedTokenCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * Backend services wired by hand the way Spring would, with the application's default settings
+ */
+final class Fixtures {
+    
+    static final String JWT_SECRET = "mySecretKey12345678901234567890123456789012345678901234567890";
+    
+    private Fixtures() {
+    }
+    
+    /**
+     * Stub-only mock: keeps no invocation history, which would otherwise grow with every measured call
+     */
+    static <T> T stub(Class<T> type) {
+        return mock(type, withSettings().stubOnly());
+    }
+    
+    static JwtService jwtService() {
+        JwtService jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret", JWT_SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86400L);
+        ReflectionTestUtils.invokeMethod(jwtService, "initSigningKey");
+        return jwtService;
+    }
+    
+    static VerifiedTokenCache verifiedTokenCache(JwtService jwtService) {
+        VerifiedTokenCache cache = new VerifiedTokenCache(jwtService, new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(cache, "maxSize", 10000);
+        ReflectionTestUtils.setField(cache, "maxTtlSeconds", 600L);
+        ReflectionTestUtils.setField(cache, "minSweepIntervalMs", 1000L);
+        ReflectionTestUtils.setField(cache, "evictionSampleSize", 8);
+        ReflectionTestUtils.invokeMethod(cache, "registerMetrics");
+        return cache;
+    }
+    
+    static TokenRevocationService tokenRevocationService() {
+        // Nothing revoked: the Bloom filter answers every lookup, Mongo is never reached
+        return new TokenRevocationService(stub(MongoTemplate.class));
+    }
+    
+    static TenantLoadTracker tenantLoadTracker() {
+        return new TenantLoadTracker(1000, 60000);
+    }
+}
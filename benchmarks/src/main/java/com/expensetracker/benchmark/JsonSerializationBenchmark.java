@@ -0,0 +1,122 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.dto.ExpenseSummaryDto;
+import com.expensetracker.model.Expense;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of API responses, with the ObjectMapper settings of the application
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonSerializationBenchmark {
+    
+    @Param({"1", "100", "1000"})
+    private int listSize;
+    
+    private ObjectMapper objectMapper;
+    private Expense expense;
+    private String expenseJson;
+    private List<Expense> expenses;
+    private ExpenseSummaryDto summary;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws JsonProcessingException {
+        objectMapper = new ObjectMapper()
+                .registerModule(new JavaTimeModule())
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES) // Spring Boot default
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+                .setTimeZone(TimeZone.getTimeZone("UTC"));
+        
+        expenses = SyntheticData.expenses(listSize);
+        expense = expenses.get(0);
+        expenseJson = objectMapper.writeValueAsString(expense);
+        summary = summaryOf(expenses);
+    }
+    
+    @Benchmark
+    public String serializeExpense() throws JsonProcessingException {
+        return objectMapper.writeValueAsString(expense);
+    }
+    
+    @Benchmark
+    public Expense deserializeExpense() throws JsonProcessingException {
+        return objectMapper.readValue(expenseJson, Expense.class);
+    }
+    
+    @Benchmark
+    public byte[] serializeExpenseList() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(expenses);
+    }
+    
+    @Benchmark
+    public byte[] serializeSummary() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(summary);
+    }
+    
+    private static ExpenseSummaryDto summaryOf(List<Expense> expenses) {
+        List<ExpenseSummaryDto.CategorySummary> breakdown = SyntheticData.categories().stream()
+                .map(category -> ExpenseSummaryDto.CategorySummary.builder()
+                        .categoryId(category.getCategoryId())
+                        .categoryName(category.getName())
+                        .amount(BigDecimal.valueOf(12345, 2))
+                        .count(expenses.size())
+                        .percentage(12.5)
+                        .color(category.getColor())
+                        .icon(category.getIcon())
+                        .build())
+                .toList();
+        List<ExpenseSummaryDto.MonthlySummary> trends = SyntheticData.byMonthStart(expenses).entrySet().stream()
+                .map(month -> ExpenseSummaryDto.MonthlySummary.builder()
+                        .monthYear(YearMonth.from(month.getKey()).toString())
+                        .amount(BigDecimal.valueOf(month.getValue().size() * 100L, 2))
+                        .count(month.getValue().size())
+                        .averageDaily(BigDecimal.valueOf(month.getValue().size() * 3L, 2))
+                        .build())
+                .toList();
+        
+        return ExpenseSummaryDto.builder()
+                .userId(SyntheticData.USER_ID)
+                .period("YEARLY")
+                .startDate(LocalDate.now().withDayOfYear(1))
+                .endDate(LocalDate.now())
+                .totalAmount(BigDecimal.valueOf(expenses.size() * 2500L, 2))
+                .totalExpenses(expenses.size())
+                .averageExpense(BigDecimal.valueOf(2500, 2))
+                .categoryBreakdown(breakdown)
+                .monthlyTrends(trends)
+                .topCategory(breakdown.get(0).getCategoryName())
+                .topCategoryAmount(breakdown.get(0).getAmount())
+                .topPayees(List.of("Grocery Mart", "City Transit", "Coffee House"))
+                .build();
+    }
+}
@@ -0,0 +1,76 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.config.JwtAuthenticationFilter;
+import com.expensetracker.service.JwtService;
+import com.expensetracker.service.VerifiedTokenCache;
+import jakarta.servlet.ServletException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link JwtAuthenticationFilter} end to end for an authenticated request: header parsing,
+ * token verification (cached or not), revocation check, security context and load tracking
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtAuthenticationFilterBenchmark {
+    
+    private JwtAuthenticationFilter filter;
+    private VerifiedTokenCache verifiedTokenCache;
+    private String token;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        JwtService jwtService = Fixtures.jwtService();
+        verifiedTokenCache = Fixtures.verifiedTokenCache(jwtService);
+        filter = new JwtAuthenticationFilter(verifiedTokenCache,
+                Fixtures.tokenRevocationService(), Fixtures.tenantLoadTracker());
+        token = jwtService.generateToken(SyntheticData.USER_ID, SyntheticData.EMAIL, "USER");
+    }
+    
+    @Benchmark
+    public MockHttpServletResponse cachedToken() throws ServletException, IOException {
+        return authenticate();
+    }
+    
+    @Benchmark
+    public MockHttpServletResponse uncachedToken() throws ServletException, IOException {
+        // Forces a full signature verification, as for the first request with a token
+        verifiedTokenCache.invalidate(token);
+        return authenticate();
+    }
+    
+    private MockHttpServletResponse authenticate() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/expenses");
+        request.setRequestURI("/api/expenses");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        try {
+            filter.doFilter(request, response, new MockFilterChain());
+        } finally {
+            SecurityContextHolder.clearContext();
+        }
+        return response;
+    }
+}
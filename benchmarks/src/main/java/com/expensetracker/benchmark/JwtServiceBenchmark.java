@@ -0,0 +1,58 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.service.JwtService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token generation and parsing in {@link JwtService}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtServiceBenchmark {
+    
+    private JwtService jwtService;
+    private String token;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        jwtService = Fixtures.jwtService();
+        token = jwtService.generateToken(SyntheticData.USER_ID, SyntheticData.EMAIL, "USER");
+    }
+    
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(SyntheticData.USER_ID, SyntheticData.EMAIL, "USER");
+    }
+    
+    @Benchmark
+    public Optional<JwtService.VerifiedToken> verifyToken() {
+        return jwtService.verifyToken(token);
+    }
+    
+    @Benchmark
+    public String extractUserId() {
+        return jwtService.extractUserId(token);
+    }
+    
+    @Benchmark
+    public String digest() {
+        return JwtService.digest(token);
+    }
+}
@@ -0,0 +1,83 @@
+package com.expensetracker.benchmark;
+
+import com.expensetracker.model.Category;
+import com.expensetracker.model.Expense;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic synthetic data shared by the benchmarks
+ */
+public final class SyntheticData {
+    
+    public static final String USER_ID = "USR-BENCH-0001";
+    public static final String EMAIL = "bench@example.com";
+    
+    private static final String[] PAYEES = {
+            "Grocery Mart", "City Transit", "Coffee House", "Power Co", "Cinema Plaza",
+            "Pharmacy", "Book Store", "Fuel Station", "Bakery", "Online Store"
+    };
+    private static final String[] PAYMENT_METHODS = {"Credit Card", "Debit Card", "Cash", "UPI", "Net Banking"};
+    
+    private SyntheticData() {
+    }
+    
+    /**
+     * The default categories of the benchmark user
+     */
+    public static List<Category> categories() {
+        return Category.DEFAULT_TEMPLATE.stream()
+                .map(template -> template.toCategory(USER_ID))
+                .toList();
+    }
+    
+    /**
+     * Expenses spread over the last twelve months, fixed seed so every run sees the same data
+     */
+    public static List<Expense> expenses(int count) {
+        Random random = new Random(42);
+        List<Category> categories = categories();
+        LocalDate today = LocalDate.now();
+        List<Expense> expenses = new ArrayList<>(count);
+        
+        for (int i = 0; i < count; i++) {
+            Category category = categories.get(random.nextInt(categories.size()));
+            expenses.add(Expense.builder()
+                    .id(String.format("%024x", i))
+                    .expenseId(Expense.generateExpenseId(USER_ID))
+                    .userId(USER_ID)
+                    .amount(BigDecimal.valueOf(50 + random.nextInt(500_000), 2))
+                    .category(category.getName())
+                    .categoryId(category.getCategoryId())
+                    .date(today.minusDays(random.nextInt(365)))
+                    .time(LocalTime.of(random.nextInt(24), random.nextInt(60)))
+                    .payee(PAYEES[random.nextInt(PAYEES.length)])
+                    .description("Synthetic expense " + i)
+                    .paymentMethod(PAYMENT_METHODS[random.nextInt(PAYMENT_METHODS.length)])
+                    .tags(Set.of("bench", "tag" + random.nextInt(5)))
+                    .source("MANUAL")
+                    .build());
+        }
+        return expenses;
+    }
+    
+    /**
+     * Expenses keyed by the first day of their month, as the monthly trend queries would return them
+     */
+    public static Map<LocalDate, List<Expense>> byMonthStart(List<Expense> expenses) {
+        Map<LocalDate, List<Expense>> byMonth = new HashMap<>();
+        for (Expense expense : expenses) {
+            byMonth.computeIfAbsent(YearMonth.from(expense.getDate()).atDay(1), key -> new ArrayList<>()).add(expense);
+        }
+        return byMonth;
+    }
+}
@@ -2,12 +2,14 @@ import axios, { AxiosInstance, AxiosError } from 'axios';
 import { toast } from 'react-hot-toast';
 import {
   User,
+  UserDirectoryPage,
   Category,
   Expense,
   ExpenseSummary,
   CreateUserRequest,
   UpdateUserRequest,
   CategoryRequest,
+  CategoryStats,
   ExpenseRequest,
   UserStats,
   PaginatedResponse,
@@ -160,8 +162,10 @@ export const api = {
       return response.data;
     },
 
-    getActiveUsers: async (): Promise<User[]> => {
-      const response = await apiClient.get<User[]>('/users/active');
+    getActiveUsers: async (cursor?: string, limit = 50): Promise<UserDirectoryPage> => {
+      const response = await apiClient.get<UserDirectoryPage>('/users/active', {
+        params: { cursor, limit },
+      });
       return response.data;
     },
 
@@ -188,6 +192,11 @@ export const api = {
       return response.data;
     },
 
+    getStats: async (): Promise<CategoryStats[]> => {
+      const response = await apiClient.get<CategoryStats[]>('/categories/stats');
+      return response.data;
+    },
+
     getById: async (categoryId: string): Promise<Category> => {
       const response = await apiClient.get<Category>(`/categories/details/${categoryId}`);
       return response.data;
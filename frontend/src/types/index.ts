@@ -71,6 +71,22 @@ export interface User {
   lastLogin?: string;
 }
 
+export interface UserSummary {
+  userId: string;
+  name: string;
+  email: string;
+  role?: string;
+  isActive: boolean;
+  createdAt: string;
+  lastLogin?: string;
+}
+
+export interface UserDirectoryPage {
+  users: UserSummary[];
+  nextCursor?: string;
+  hasMore: boolean;
+}
+
 export interface CreateUserRequest {
   name: string;
   email: string;
@@ -90,6 +106,8 @@ export interface UserStats {
   categoryCount: number;
   expenseCount?: number;
   totalExpenses?: number;
+  firstExpenseDate?: string;
+  lastExpenseDate?: string;
 }
 
 // Category Types
@@ -106,6 +124,17 @@ export interface Category {
   updatedAt: string;
 }
 
+export interface CategoryStats {
+  categoryId: string;
+  categoryName: string;
+  color: string;
+  icon: string;
+  isDefault: boolean;
+  expenseCount: number;
+  totalAmount: number;
+  lastUsed?: string;
+}
+
 export interface CategoryRequest {
   name: string;
   description?: string;